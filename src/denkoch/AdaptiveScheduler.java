@@ -0,0 +1,333 @@
+package denkoch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.*;
+
+/**
+ * Meta-scheduler that picks a scheduling policy for every sweep from the observed workload.
+ * <p>
+ * Requests become eligible at their arrival time. Each sweep takes every request that has
+ * arrived so far, measures its queue depth, the mean seek distance of servicing it in arrival
+ * order and the recent arrival rate, and hands the sweep to the registered policy with the
+ * highest score for those statistics. A policy change only takes effect after the new policy
+ * has won {@link SystemParams#ADAPTIVE_HYSTERESIS} sweeps in a row, so the scheduler does not
+ * thrash between policies on noisy statistics.
+ * <p>
+ * FIFO, LOOK and FLOOK are registered by default; further policies can be added with
+ * {@link #registerPolicy(String, Supplier, ToDoubleFunction)}.
+ * <p>
+ * Running the class on its own compares the scheduler with fixed policies on generated workloads.
+ * Usage: {@code java denkoch.AdaptiveScheduler [FIXED|MECHANICAL|ZONED]}
+ */
+public class AdaptiveScheduler extends DiskScheduler {
+
+    /**
+     * Workload statistics of a single sweep.
+     */
+    public static class SweepStatistics {
+        private final int queueDepth;
+        private final double meanSeekDistance;
+        private final double arrivalRate;
+
+        SweepStatistics(int queueDepth, double meanSeekDistance, double arrivalRate) {
+            this.queueDepth = queueDepth;
+            this.meanSeekDistance = meanSeekDistance;
+            this.arrivalRate = arrivalRate;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Gets the mean distance in tracks between consecutive requests in arrival order,
+         * starting from the head; a small value means the sweep is already local.
+         *
+         * @return the mean seek distance.
+         */
+        public double getMeanSeekDistance() {
+            return meanSeekDistance;
+        }
+
+        /**
+         * Gets the moving average of the arrival rate.
+         *
+         * @return the arrival rate in requests per millisecond.
+         */
+        public double getArrivalRate() {
+            return arrivalRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{queue depth = %d, mean seek distance = %.1f, arrival rate = %.3f/ms}",
+                    queueDepth, meanSeekDistance, arrivalRate);
+        }
+    }
+
+    private static final double ARRIVAL_RATE_WEIGHT = 0.25;
+
+    private static class Policy {
+        private final DiskScheduler scheduler;
+        private final ToDoubleFunction<SweepStatistics> score;
+
+        Policy(DiskScheduler scheduler, ToDoubleFunction<SweepStatistics> score) {
+            this.scheduler = scheduler;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Policy> policies;
+    private final PriorityQueue<Request> futureRequests;
+    private final List<Request> sweep;
+
+    private String currentPolicy;
+    private String candidatePolicy;
+    private int candidateWins;
+    private double arrivalRate = -1;
+    private double lastSweepTime;
+    private int sweeps;
+
+    public AdaptiveScheduler(Integer head) {
+        super(head);
+        this.policies = new LinkedHashMap<>();
+        this.futureRequests = new PriorityQueue<>(Comparator.comparingDouble(Request::getArrivalTime));
+        this.sweep = new ArrayList<>();
+
+        registerPolicy("FIFO", () -> new FIFOScheduler(head), statistics ->
+                statistics.getQueueDepth() <= SHALLOW_QUEUE_DEPTH
+                        || statistics.getMeanSeekDistance() <= LOCAL_SEEK_DISTANCE ? 1 : 0);
+        registerPolicy("LOOK", () -> new LOOKScheduler(head), statistics -> 0.5);
+        registerPolicy("FLOOK", () -> new FLOOKScheduler(head), statistics ->
+                statistics.getQueueDepth() >= DEEP_QUEUE_DEPTH ? 0.75 : 0);
+    }
+
+    /**
+     * Registers a policy the scheduler may switch to.
+     *
+     * @param name      the name of the policy.
+     * @param scheduler creates the scheduler implementing the policy.
+     * @param score     rates how well the policy suits a sweep; the highest score wins.
+     */
+    public void registerPolicy(String name, Supplier<DiskScheduler> scheduler, ToDoubleFunction<SweepStatistics> score) {
+        DiskScheduler policyScheduler = scheduler.get();
+        policyScheduler.setServiceTimeModel(serviceTimeModel);
+        policies.put(name, new Policy(policyScheduler, score));
+    }
+
+    @Override
+    public void setServiceTimeModel(ServiceTimeModel serviceTimeModel) {
+        super.setServiceTimeModel(serviceTimeModel);
+        policies.values().forEach(policy -> policy.scheduler.setServiceTimeModel(serviceTimeModel));
+    }
+
+    @Override
+    public void setTelemetrySampler(TelemetrySampler telemetrySampler) {
+        super.setTelemetrySampler(telemetrySampler);
+        policies.values().forEach(policy -> policy.scheduler.setTelemetrySampler(telemetrySampler));
+    }
+
+    @Override
+    public void setCompletionListener(CompletionListener completionListener) {
+        super.setCompletionListener(completionListener);
+        policies.values().forEach(policy -> policy.scheduler.setCompletionListener(completionListener));
+    }
+
+    @Override
+    public void setResultSink(ResultSink resultSink) {
+        super.setResultSink(resultSink);
+        policies.values().forEach(policy -> policy.scheduler.setResultSink(resultSink));
+    }
+
+    /**
+     * Adds a new request, which becomes eligible for service at its arrival time.
+     *
+     * @param request the {@link Request} to add to the scheduler.
+     */
+    @Override
+    public void addRequest(Request request) {
+        futureRequests.add(request);
+    }
+
+    /**
+     * Processes all requests sweep by sweep, choosing the policy of each sweep from its statistics.
+     */
+    @Override
+    public void processRequests() {
+        beginProcessing();
+
+        while (!futureRequests.isEmpty()) {
+            if (futureRequests.peek().getArrivalTime() > scheduleTime) {
+                scheduleTime = futureRequests.peek().getArrivalTime();
+            }
+            while (!futureRequests.isEmpty() && futureRequests.peek().getArrivalTime() <= scheduleTime) {
+                Request request = futureRequests.poll();
+                request.setQueueTime(request.getArrivalTime());
+                sweep.add(request);
+            }
+
+            SweepStatistics statistics = measure();
+            String policy = choosePolicy(statistics);
+            Logger.log(ADAPTIVE_DECISION, ++sweeps, statistics, policy);
+            runSweep(policies.get(policy).scheduler);
+        }
+    }
+
+    private SweepStatistics measure() {
+        long distance = 0;
+        int previousTrack = head;
+        for (Request request : sweep) {
+            distance += Math.abs(request.getTrackNumber() - previousTrack);
+            previousTrack = request.getTrackNumber();
+        }
+
+        double elapsed = scheduleTime - lastSweepTime;
+        if (elapsed > 0) {
+            double rate = sweep.size() / elapsed;
+            arrivalRate = arrivalRate < 0 ? rate : (1 - ARRIVAL_RATE_WEIGHT) * arrivalRate + ARRIVAL_RATE_WEIGHT * rate;
+        }
+        lastSweepTime = scheduleTime;
+
+        return new SweepStatistics(sweep.size(), (double) distance / sweep.size(), Math.max(arrivalRate, 0));
+    }
+
+    private String choosePolicy(SweepStatistics statistics) {
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<String, Policy> entry : policies.entrySet()) {
+            double score = entry.getValue().score.applyAsDouble(statistics);
+            if (score > bestScore) {
+                bestScore = score;
+                best = entry.getKey();
+            }
+        }
+
+        // A wrong policy costs more the deeper the sweep, so deep sweeps switch at once
+        if (currentPolicy == null || statistics.getQueueDepth() >= DEEP_QUEUE_DEPTH) {
+            currentPolicy = best;
+            candidatePolicy = null;
+            candidateWins = 0;
+        } else if (best.equals(currentPolicy)) {
+            candidatePolicy = null;
+            candidateWins = 0;
+        } else {
+            candidateWins = best.equals(candidatePolicy) ? candidateWins + 1 : 1;
+            candidatePolicy = best;
+            if (candidateWins >= ADAPTIVE_HYSTERESIS) {
+                currentPolicy = best;
+                candidatePolicy = null;
+                candidateWins = 0;
+            }
+        }
+        return currentPolicy;
+    }
+
+    /**
+     * Hands the current sweep to a policy scheduler, continuing from this scheduler's head
+     * position, direction and time.
+     */
+    private void runSweep(DiskScheduler scheduler) {
+        scheduler.head = head;
+        scheduler.order = order;
+        scheduler.scheduleTime = scheduleTime;
+
+        sweep.forEach(scheduler::addRequest);
+        sweep.clear();
+        scheduler.processRequests();
+
+        head = scheduler.head;
+        order = scheduler.order;
+        scheduleTime = scheduler.scheduleTime;
+        getRequestTimes().addAll(scheduler.getRequestTimes());
+        scheduler.getRequestTimes().clear();
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        List<Request> pendingRequests = new ArrayList<>(sweep);
+        pendingRequests.addAll(futureRequests);
+        return pendingRequests;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return sweep.size() + futureRequests.size();
+    }
+
+    /**
+     * Runs the same generated workloads through FIFO, LOOK, FLOOK, SPTF and the adaptive
+     * scheduler, {@link SystemParams#ADAPTIVE_BENCHMARK_REQUESTS} requests each, and logs the
+     * makespan and the mean latency of every run. The fixed policies get the requests at their
+     * arrival times, sweep by sweep like the adaptive scheduler, so only the choice of policy differs.
+     */
+    public static void main(String[] args) {
+        String serviceTimeModel = args.length > 0 ? args[0] : "FIXED";
+
+        for (String workload : new String[]{"UNIFORM", "ZIPF", "HOTSPOT", "SEQUENTIAL", "MIXED"}) {
+            for (String policy : new String[]{"FIFO", "LOOK", "FLOOK", "SPTF", "ADAPTIVE"}) {
+                List<Request> requests = new ArrayList<>(ADAPTIVE_BENCHMARK_REQUESTS);
+                new WorkloadGenerator(WORKLOAD_SEED, Main.createWorkload(workload))
+                        .requests(NUMBER_OF_PROCESSES, ADAPTIVE_BENCHMARK_REQUESTS)
+                        .forEachRemaining(requests::add);
+                requests.sort(Comparator.comparingDouble(Request::getArrivalTime));
+
+                DiskScheduler scheduler = Main.createScheduler(policy);
+                scheduler.setOrder(Order.ASC);
+                scheduler.setServiceTimeModel(Main.createServiceTimeModel(serviceTimeModel));
+
+                try {
+                    Path file = Files.createTempFile("adaptive", ".rlog");
+                    // The per-request log of the run is not of interest here
+                    Logger.CAPTURE.set(new StringBuilder());
+                    try (ResultSink resultSink = new ResultSink(file, RESULT_LOG_BLOCK_ROWS)) {
+                        scheduler.setResultSink(resultSink);
+                        if (scheduler instanceof AdaptiveScheduler) {
+                            requests.forEach(scheduler::addRequest);
+                            scheduler.processRequests();
+                        } else {
+                            releaseAtArrivals(scheduler, requests);
+                        }
+                    } finally {
+                        Logger.CAPTURE.remove();
+                    }
+
+                    double meanLatency = ResultLogReader.summarize(file).getMeanLatency();
+                    Files.delete(file);
+                    Logger.log(ADAPTIVE_BENCHMARK_RESULT, workload, policy, scheduler.scheduleTime, meanLatency);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Feeds requests sorted by arrival time to a scheduler, processing every request that has
+     * arrived as one sweep in the same way as {@link #processRequests()}.
+     */
+    private static void releaseAtArrivals(DiskScheduler scheduler, List<Request> requests) {
+        int next = 0;
+        while (next < requests.size()) {
+            scheduler.scheduleTime = Math.max(scheduler.scheduleTime, requests.get(next).getArrivalTime());
+            while (next < requests.size() && requests.get(next).getArrivalTime() <= scheduler.scheduleTime) {
+                Request request = requests.get(next++);
+                request.setQueueTime(request.getArrivalTime());
+                scheduler.addRequest(request);
+            }
+            scheduler.processRequests();
+        }
+    }
+}
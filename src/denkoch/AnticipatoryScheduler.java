@@ -0,0 +1,262 @@
+package denkoch;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.*;
+
+/**
+ * Implements anticipatory LOOK scheduling.
+ * <p>
+ * Processes are simulated as issuing dependent reads: a process issues its requests in
+ * arrival order, cannot issue anything while one of its READs is outstanding, and after
+ * the READ completes it thinks for the gap between the two arrival times before issuing
+ * the next request. Issued requests are serviced in LOOK order. After a READ completes, the scheduler may
+ * keep the head where it is for a short window instead of seeking away, betting that the
+ * same process is about to issue a nearby request. The bet is driven by per-process
+ * statistics: a moving average of the think time between a completion and the next
+ * request of the process, and of the seek distance between its consecutive requests.
+ * The window is a multiple of the mean think time, capped at
+ * {@link SystemParams#ANTICIPATION_MAX_WINDOW}.
+ * <p>
+ * The scheduler reports the seek time saved by successful anticipations against the idle
+ * time spent waiting. Idle time, including time spent waiting for the next arrival when
+ * nothing is pending, counts towards the scheduling time.
+ */
+public class AnticipatoryScheduler extends DiskScheduler {
+
+    private static final double STATISTICS_WEIGHT = 0.25;
+
+    private static class ProcessStatistics {
+        private final PriorityQueue<Request> futureRequests;
+        private boolean readOutstanding;
+        private double nextIssueTime;
+        private double meanThinkTime = -1;
+        private double meanSeekDistance = -1;
+        private double lastCompletionTime = -1;
+        private int lastTrack = -1;
+
+        ProcessStatistics() {
+            this.futureRequests = new PriorityQueue<>(Comparator.comparingDouble(Request::getArrivalTime));
+        }
+
+        /**
+         * Gets the time at which the process issues its next request.
+         *
+         * @return the issue time, or {@link Double#MAX_VALUE} if the process is blocked or done.
+         */
+        double issueTime() {
+            Request request = futureRequests.peek();
+            if (readOutstanding || request == null) {
+                return Double.MAX_VALUE;
+            }
+            return Math.max(request.getArrivalTime(), nextIssueTime);
+        }
+
+        Request issue() {
+            double time = issueTime();
+            Request request = futureRequests.poll();
+            request.setQueueTime(time);
+            readOutstanding = request.getRequest() == Request.RequestType.READ;
+
+            if (lastCompletionTime >= 0) {
+                double thinkTime = Math.max(0, time - lastCompletionTime);
+                meanThinkTime = meanThinkTime < 0 ? thinkTime : average(meanThinkTime, thinkTime);
+            }
+            if (lastTrack >= 0) {
+                double distance = Math.abs(request.getTrackNumber() - lastTrack);
+                meanSeekDistance = meanSeekDistance < 0 ? distance : average(meanSeekDistance, distance);
+            }
+            lastTrack = request.getTrackNumber();
+            return request;
+        }
+
+        void recordCompletion(Request request, double time) {
+            if (request.getRequest() != Request.RequestType.READ) {
+                return;
+            }
+            readOutstanding = false;
+            lastCompletionTime = time;
+
+            Request next = futureRequests.peek();
+            double thinkTime = next == null ? 0 : Math.max(0, next.getArrivalTime() - request.getArrivalTime());
+            nextIssueTime = time + thinkTime;
+        }
+
+        /**
+         * Calculates how long to wait for the next request of the process.
+         *
+         * @return the anticipation window, or {@code 0} if the process is not worth waiting for.
+         */
+        double anticipationWindow() {
+            if (meanThinkTime < 0 || meanSeekDistance < 0 || meanSeekDistance > ANTICIPATION_SEEK_DISTANCE) {
+                return 0;
+            }
+            double window = meanThinkTime * ANTICIPATION_THINK_FACTOR;
+            return window <= ANTICIPATION_MAX_WINDOW ? window : 0;
+        }
+
+        private static double average(double mean, double value) {
+            return (1 - STATISTICS_WEIGHT) * mean + STATISTICS_WEIGHT * value;
+        }
+    }
+
+    private final TrackQueue pendingRequests;
+    private final Map<Integer, ProcessStatistics> statistics;
+    private int futureRequests;
+
+    private int anticipations;
+    private int successfulAnticipations;
+    private double seekTimeSaved;
+    private double anticipationIdleTime;
+
+    public AnticipatoryScheduler(Integer head) {
+        super(head);
+        this.pendingRequests = new TrackQueue();
+        this.statistics = new HashMap<>();
+    }
+
+    /**
+     * Adds a new request, which becomes eligible for service at its arrival time.
+     *
+     * @param request the {@link Request} to add to the scheduler.
+     */
+    @Override
+    public void addRequest(Request request) {
+        statistics.computeIfAbsent(request.getProcessId(), processId -> new ProcessStatistics())
+                .futureRequests.add(request);
+        futureRequests++;
+    }
+
+    /**
+     * Processes all requests in LOOK order, anticipating follow-up requests after each READ.
+     */
+    @Override
+    public void processRequests() {
+        beginProcessing();
+
+        while (futureRequests > 0 || !pendingRequests.isEmpty()) {
+            admitArrivals();
+            if (pendingRequests.isEmpty()) {
+                scheduleTime = nextArrivalTime();
+                continue;
+            }
+
+            Request request = pendingRequests.poll(nextTrack());
+            while (request != null) {
+                service(request);
+                request = request.getRequest() == Request.RequestType.READ ? anticipate(request) : null;
+            }
+        }
+
+        double netSaving = seekTimeSaved - anticipationIdleTime;
+        Logger.log(ANTICIPATION_STATISTICS, anticipations, successfulAnticipations, seekTimeSaved,
+                anticipationIdleTime, netSaving);
+    }
+
+    private void service(Request request) {
+        performHeadMovement(request);
+        statistics.get(request.getProcessId()).recordCompletion(request, scheduleTime);
+    }
+
+    /**
+     * Waits for a nearby follow-up request of the process that issued the completed READ.
+     *
+     * @param completed the READ that has just completed.
+     * @return the follow-up request to service next, or {@code null} to resume the LOOK sweep.
+     */
+    private Request anticipate(Request completed) {
+        ProcessStatistics processStatistics = statistics.get(completed.getProcessId());
+        double window = processStatistics.anticipationWindow();
+        if (window <= 0 || pendingRequests.isEmpty()) {
+            return null;
+        }
+
+        anticipations++;
+        Request next = processStatistics.futureRequests.peek();
+        if (next == null || processStatistics.issueTime() > scheduleTime + window) {
+            anticipationIdleTime += window;
+            scheduleTime += window;
+            admitArrivals();
+            return null;
+        }
+
+        double issueTime = processStatistics.issueTime();
+        double idleTime = Math.max(0, issueTime - scheduleTime);
+        anticipationIdleTime += idleTime;
+        scheduleTime = Math.max(scheduleTime + idleTime, issueTime);
+
+        // Issue the follow-up explicitly, so the alternative is chosen among the other requests
+        processStatistics.issue();
+        futureRequests--;
+        admitArrivals();
+
+        double alternativeSeekTime = serviceTimeModel.seekTime(head, peekTrack());
+        double seekTime = serviceTimeModel.seekTime(head, next.getTrackNumber());
+        if (seekTime > alternativeSeekTime) {
+            pendingRequests.add(next);
+            return null;
+        }
+
+        successfulAnticipations++;
+        seekTimeSaved += alternativeSeekTime - seekTime;
+        return next;
+    }
+
+    private void admitArrivals() {
+        for (ProcessStatistics processStatistics : statistics.values()) {
+            while (processStatistics.issueTime() <= scheduleTime) {
+                pendingRequests.add(processStatistics.issue());
+                futureRequests--;
+            }
+        }
+    }
+
+    private double nextArrivalTime() {
+        double time = Double.MAX_VALUE;
+        for (ProcessStatistics processStatistics : statistics.values()) {
+            time = Math.min(time, processStatistics.issueTime());
+        }
+        return time;
+    }
+
+    /**
+     * Finds the next pending track of the LOOK sweep, reversing the direction if nothing
+     * remains ahead of the head.
+     */
+    private int nextTrack() {
+        int track = order == Order.DESC ? pendingRequests.floorTrack(head) : pendingRequests.ceilingTrack(head);
+        if (track < 0) {
+            order = order == Order.DESC ? Order.ASC : Order.DESC;
+            track = order == Order.DESC ? pendingRequests.floorTrack(head) : pendingRequests.ceilingTrack(head);
+        }
+        return track;
+    }
+
+    /**
+     * Finds the next pending track of the LOOK sweep without changing its direction.
+     */
+    private int peekTrack() {
+        int track = order == Order.DESC ? pendingRequests.floorTrack(head) : pendingRequests.ceilingTrack(head);
+        if (track < 0) {
+            track = order == Order.DESC ? pendingRequests.ceilingTrack(head) : pendingRequests.floorTrack(head);
+        }
+        return track;
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        List<Request> requests = pendingRequests.toList();
+        statistics.values().forEach(processStatistics -> requests.addAll(processStatistics.futureRequests));
+        return requests;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return pendingRequests.size();
+    }
+}
@@ -0,0 +1,19 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses when the next request of a process is issued.
+ * <p>
+ * Implementations may keep state between calls, so every process needs its own instance.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Draws the time between the previous request and the next one.
+     *
+     * @param random the random stream of the process issuing the request.
+     * @return the inter-arrival time in milliseconds.
+     */
+    double nextInterArrivalTime(SplittableRandom random);
+}
@@ -0,0 +1,92 @@
+package denkoch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.*;
+
+/**
+ * Computes the service times of a whole sweep at once under the {@link FixedServiceTimeModel}.
+ * <p>
+ * Once the order of a sweep is known, the time of every request depends only on the distance
+ * to the previous track in the sweep, so the times can be computed in one tight loop over
+ * primitive arrays instead of one model call per request.
+ * <p>
+ * Running the class on its own benchmarks the batch loop against per-request model calls.
+ * Usage: {@code java denkoch.BatchServiceTimes}
+ */
+public final class BatchServiceTimes {
+
+    private BatchServiceTimes() {
+    }
+
+    /**
+     * Computes the service time of every request of a sweep.
+     *
+     * @param positions the head position followed by the tracks of the sweep in service order;
+     *                  the first {@code count + 1} elements are used.
+     * @param count     the number of requests in the sweep.
+     * @param times     receives the service time of each request; must hold {@code count} elements.
+     */
+    public static void compute(int[] positions, int count, double[] times) {
+        for (int i = 0; i < count; i++) {
+            int track = positions[i + 1];
+            double time;
+            if (track == 0 || track == NUMBER_OF_TRACKS) {
+                time = TIME_TO_BOUNDARY_TRACK;
+            } else {
+                time = Math.abs(track - positions[i]) * TIME_PER_TRACK;
+            }
+            times[i] = time + AVG_ROTATION_DELAY;
+        }
+    }
+
+    /**
+     * Benchmarks the batch loop against per-request {@link FixedServiceTimeModel} calls on random
+     * sweeps of several sizes, computing {@link SystemParams#BATCH_BENCHMARK_REQUESTS} service
+     * times per size.
+     */
+    public static void main(String[] args) {
+        ServiceTimeModel model = new FixedServiceTimeModel();
+        Random random = new Random(WORKLOAD_SEED);
+        for (int count : new int[]{16, 256, 4096}) {
+            int[] positions = new int[count + 1];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = random.nextInt(NUMBER_OF_TRACKS + 1);
+            }
+            double[] modelTimes = new double[count];
+            double[] batchTimes = new double[count];
+            int iterations = Math.max(1, BATCH_BENCHMARK_REQUESTS / count);
+
+            // Warm up both paths before measuring
+            for (int i = 0; i < iterations; i++) {
+                computeWithModel(model, positions, count, modelTimes);
+                compute(positions, count, batchTimes);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                computeWithModel(model, positions, count, modelTimes);
+            }
+            double modelNanos = (double) (System.nanoTime() - start) / iterations / count;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                compute(positions, count, batchTimes);
+            }
+            double batchNanos = (double) (System.nanoTime() - start) / iterations / count;
+
+            Logger.log(BATCH_BENCHMARK_RESULT, count, modelNanos, batchNanos, modelNanos / batchNanos,
+                    Arrays.equals(modelTimes, batchTimes));
+        }
+    }
+
+    private static void computeWithModel(ServiceTimeModel model, int[] positions, int count, double[] times) {
+        for (int i = 0; i < count; i++) {
+            int track = positions[i + 1];
+            times[i] = model.seekTime(positions[i], track) + model.rotationalDelay(track, 0, 0)
+                    + model.transferTime(track);
+        }
+    }
+}
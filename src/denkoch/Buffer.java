@@ -16,8 +16,18 @@ public class Buffer {
      * @param bufferId the unique identifier of the buffer.
      */
     public Buffer(Integer bufferId) {
+        this(bufferId, 1);
+    }
+
+    /**
+     * Constructs a new {@code Buffer} with the specified buffer ID and access frequency.
+     *
+     * @param bufferId  the unique identifier of the buffer.
+     * @param frequency the access frequency of the buffer.
+     */
+    public Buffer(Integer bufferId, Integer frequency) {
         this.bufferId = bufferId;
-        this.frequency = 1;
+        this.frequency = frequency;
     }
 
     public Integer getBufferId() {
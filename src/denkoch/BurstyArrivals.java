@@ -0,0 +1,45 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Issues requests in bursts separated by idle periods.
+ * <p>
+ * Inside a burst requests arrive as a fast Poisson process. Every burst has a
+ * geometrically distributed number of requests and is followed by an exponentially
+ * distributed idle period.
+ */
+public class BurstyArrivals implements ArrivalProcess {
+
+    private final double meanBurstInterArrivalTime;
+    private final double endOfBurstProbability;
+    private final double meanIdleTime;
+    private boolean inBurst;
+
+    /**
+     * Constructs a new {@code BurstyArrivals}.
+     *
+     * @param meanBurstSize the mean number of requests in a burst.
+     * @param burstRate     the mean number of requests per millisecond inside a burst.
+     * @param meanIdleTime  the mean idle time in milliseconds between bursts.
+     */
+    public BurstyArrivals(double meanBurstSize, double burstRate, double meanIdleTime) {
+        this.meanBurstInterArrivalTime = 1 / burstRate;
+        this.endOfBurstProbability = 1 / Math.max(meanBurstSize, 1);
+        this.meanIdleTime = meanIdleTime;
+    }
+
+    @Override
+    public double nextInterArrivalTime(SplittableRandom random) {
+        double time = 0;
+        if (!inBurst || random.nextDouble() < endOfBurstProbability) {
+            time += exponential(random, meanIdleTime);
+            inBurst = true;
+        }
+        return time + exponential(random, meanBurstInterArrivalTime);
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+}
@@ -0,0 +1,153 @@
+package denkoch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Two-level cache with a private {@link ProcessCache} per process in front of the shared {@link LFUCache}.
+ * <p>
+ * Hits in the private cache never touch the shared cache, which takes load off the shared
+ * structure and keeps single-process data out of its segments. Accesses to the shared cache
+ * are synchronized on it, so processes may run on separate threads.
+ * <p>
+ * Under the inclusive policy a track read from the shared cache stays there and is also
+ * copied to the private cache. Under the exclusive policy it moves to the private cache,
+ * and tracks evicted from a private cache are demoted back into the shared cache with the
+ * frequency they had when they left it. Without private caches every access goes straight
+ * to the shared cache.
+ * <p>
+ * WRITEs go through to the shared cache and bump the version of the track, which
+ * invalidates the copies held by the private caches of the other processes.
+ */
+public class CacheHierarchy {
+
+    /**
+     * Enumeration defining whether the shared cache also holds the tracks of the private caches.
+     */
+    enum InclusionPolicy {
+        INCLUSIVE, EXCLUSIVE
+    }
+
+    private final LFUCache sharedCache;
+    private final int privateCacheSize;
+    private final InclusionPolicy inclusionPolicy;
+    private final Map<Integer, ProcessCache> privateCaches;
+    private final AtomicIntegerArray trackVersions;
+
+    private final AtomicLong sharedHits;
+    private final AtomicLong sharedMisses;
+
+    /**
+     * Constructs a new {@code CacheHierarchy}.
+     *
+     * @param sharedCache      the shared {@link LFUCache}.
+     * @param privateCacheSize the number of tracks in each private cache; {@code 0} disables them.
+     * @param inclusionPolicy  the inclusion policy between the private caches and the shared cache.
+     */
+    public CacheHierarchy(LFUCache sharedCache, int privateCacheSize, InclusionPolicy inclusionPolicy) {
+        this.sharedCache = sharedCache;
+        this.privateCacheSize = privateCacheSize;
+        this.inclusionPolicy = inclusionPolicy;
+        this.privateCaches = new ConcurrentHashMap<>();
+        this.trackVersions = new AtomicIntegerArray(NUMBER_OF_TRACKS + 1);
+        this.sharedHits = new AtomicLong();
+        this.sharedMisses = new AtomicLong();
+    }
+
+    /**
+     * Looks up the track of a request, first in the private cache of its process and then in the
+     * shared cache. Must be called from the thread of the process issuing the request.
+     *
+     * @param request the {@link Request} accessing the cache.
+     * @return {@code true} if the track was found in either cache; {@code false} otherwise.
+     */
+    public boolean access(Request request) {
+        int track = request.getTrackNumber();
+        if (privateCacheSize == 0) {
+            return accessShared(track);
+        }
+        ProcessCache privateCache = privateCaches.computeIfAbsent(request.getProcessId(),
+                processId -> new ProcessCache(privateCacheSize));
+
+        if (request.getRequest() == Request.RequestType.WRITE) {
+            int version = trackVersions.incrementAndGet(track);
+            boolean hit = privateCache.lookup(track, version - 1);
+            boolean sharedHit = accessShared(track);
+
+            if (inclusionPolicy == InclusionPolicy.INCLUSIVE) {
+                privateCache.insert(track, version);
+            } else {
+                privateCache.remove(track);
+            }
+            return hit || sharedHit;
+        }
+
+        int version = trackVersions.get(track);
+        if (privateCache.lookup(track, version)) {
+            return true;
+        }
+
+        if (inclusionPolicy == InclusionPolicy.INCLUSIVE) {
+            boolean sharedHit = accessShared(track);
+            privateCache.insert(track, version);
+            return sharedHit;
+        }
+
+        Buffer taken;
+        synchronized (sharedCache) {
+            taken = sharedCache.takeBuffer(track);
+            sharedCache.recordAccess(taken != null);
+        }
+        boolean sharedHit = taken != null;
+        (sharedHit ? sharedHits : sharedMisses).incrementAndGet();
+
+        int evicted = privateCache.insert(track, version, sharedHit ? taken.getFrequency() : 1);
+        if (evicted >= 0) {
+            synchronized (sharedCache) {
+                sharedCache.reinsert(evicted, privateCache.getEvictedFrequency());
+            }
+        }
+        return sharedHit;
+    }
+
+    /**
+     * Logs the hit rates of both levels and the share of accesses kept away from the shared cache.
+     * Nothing is logged without private caches.
+     */
+    public void logStatistics() {
+        if (privateCacheSize == 0) {
+            return;
+        }
+        long privateHits = 0;
+        long privateMisses = 0;
+        for (ProcessCache privateCache : privateCaches.values()) {
+            privateHits += privateCache.getHits();
+            privateMisses += privateCache.getMisses();
+        }
+
+        long accesses = privateHits + privateMisses;
+        long sharedAccesses = sharedHits.get() + sharedMisses.get();
+        Logger.log(CACHE_HIERARCHY_STATISTICS, inclusionPolicy, privateCacheSize,
+                percentage(privateHits, accesses), percentage(sharedHits.get(), sharedAccesses),
+                accesses - sharedAccesses, percentage(accesses - sharedAccesses, accesses));
+    }
+
+    private boolean accessShared(int track) {
+        boolean hit;
+        synchronized (sharedCache) {
+            hit = sharedCache.containsBuffer(track);
+            sharedCache.getBuffer(track);
+        }
+        (hit ? sharedHits : sharedMisses).incrementAndGet();
+        return hit;
+    }
+
+    private static double percentage(long part, long total) {
+        return total > 0 ? part * 100.0 / total : 0;
+    }
+}
@@ -0,0 +1,360 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.NUMBER_OF_DISKS;
+
+/**
+ * Simulates an array of disks behind a single controller.
+ * <p>
+ * Logical tracks are striped across the disks according to the RAID layout, and every
+ * disk runs its own {@link DiskScheduler}. When the array processes its requests, the
+ * disks work in parallel on a thread pool, starting from the clock of the array, so the
+ * array takes as long as the disk that finishes last. The controller cache is the
+ * {@link LFUCache} consulted before requests reach the array.
+ * <p>
+ * Striped layouts offset their stripe rows by one, so logical track 0 is the only track
+ * that lands on the boundary track of a disk.
+ */
+public class DiskArray extends DiskScheduler {
+
+    /**
+     * Enumeration defining how logical tracks are laid out on the disks.
+     */
+    enum Layout {
+        RAID0, RAID1, RAID5
+    }
+
+    private final Layout layout;
+    private final List<DiskScheduler> disks;
+    private final int[] diskRequests;
+    private final int[] projectedHeads;
+    private final List<Request> pendingRequests;
+    private int logicalRequests;
+    private int nextMirror;
+
+    /**
+     * Constructs a new {@code DiskArray} of {@link SystemParams#NUMBER_OF_DISKS} disks.
+     *
+     * @param layout    the RAID layout of the array.
+     * @param scheduler creates the scheduler of each disk.
+     */
+    public DiskArray(Layout layout, Supplier<DiskScheduler> scheduler) {
+        this(layout, NUMBER_OF_DISKS, scheduler);
+    }
+
+    /**
+     * Constructs a new {@code DiskArray} with the specified number of disks.
+     *
+     * @param layout        the RAID layout of the array.
+     * @param numberOfDisks the number of disks in the array.
+     * @param scheduler     creates the scheduler of each disk.
+     */
+    public DiskArray(Layout layout, int numberOfDisks, Supplier<DiskScheduler> scheduler) {
+        super(0);
+        if (numberOfDisks < 1 || (layout != Layout.RAID0 && numberOfDisks < 2)
+                || (layout == Layout.RAID5 && numberOfDisks < 3)) {
+            throw new IllegalArgumentException(INVALID_ARRAY_ERROR);
+        }
+        this.layout = layout;
+        this.disks = new ArrayList<>(numberOfDisks);
+        for (int i = 0; i < numberOfDisks; i++) {
+            disks.add(scheduler.get());
+        }
+        this.diskRequests = new int[numberOfDisks];
+        this.projectedHeads = new int[numberOfDisks];
+        this.pendingRequests = new ArrayList<>();
+        this.head = disks.get(0).head;
+        for (int i = 0; i < numberOfDisks; i++) {
+            projectedHeads[i] = disks.get(i).head;
+        }
+    }
+
+    @Override
+    public void setOrder(Order order) {
+        super.setOrder(order);
+        disks.forEach(disk -> disk.setOrder(order));
+    }
+
+    @Override
+    public void setServiceTimeModel(ServiceTimeModel serviceTimeModel) {
+        super.setServiceTimeModel(serviceTimeModel);
+        disks.forEach(disk -> disk.setServiceTimeModel(serviceTimeModel));
+    }
+
+    /**
+     * Attaches the sampler to the array and gives every disk an empty sampler of its own, as
+     * a sampler has a single writer and follows a single head. The sampler of the array only
+     * receives the samples the driver takes; the disks sample what they service.
+     *
+     * @param telemetrySampler the {@link TelemetrySampler}, or {@code null} to stop sampling.
+     */
+    @Override
+    public void setTelemetrySampler(TelemetrySampler telemetrySampler) {
+        super.setTelemetrySampler(telemetrySampler);
+        disks.forEach(disk -> disk.setTelemetrySampler(telemetrySampler == null ? null : telemetrySampler.newSampler()));
+    }
+
+    /**
+     * Gets the samplers of the disks, in disk order.
+     *
+     * @return a new list with the sampler of every disk, or an empty list if there is no telemetry.
+     */
+    public List<TelemetrySampler> getDiskTelemetrySamplers() {
+        List<TelemetrySampler> samplers = new ArrayList<>(disks.size());
+        for (DiskScheduler disk : disks) {
+            if (disk.getTelemetrySampler() != null) {
+                samplers.add(disk.getTelemetrySampler());
+            }
+        }
+        return samplers;
+    }
+
+    /**
+     * Sets the weight of a process on every disk, so each disk shares its time between the
+     * processes in the same proportions.
+     *
+     * @param processId the ID of the process.
+     * @param weight    the weight of the process.
+     * @throws IllegalStateException if the disks do not run a {@link FairQueueScheduler}.
+     */
+    public void setWeight(int processId, double weight) {
+        for (DiskScheduler disk : disks) {
+            if (!(disk instanceof FairQueueScheduler fairQueueScheduler)) {
+                throw new IllegalStateException(INVALID_SCHEDULER_ERROR);
+            }
+            fairQueueScheduler.setWeight(processId, weight);
+        }
+    }
+
+    /**
+     * Maps a logical request onto the disks of the array.
+     * <p>
+     * RAID0 sends the request to a single disk. RAID1 writes to every mirror and reads from
+     * the mirror whose head will be closest to the track, judging by the last track routed
+     * to each mirror. RAID5 reads from the data disk and
+     * writes to both the data disk and the parity disk of the stripe.
+     *
+     * @param request the logical {@link Request} to add to the array.
+     */
+    @Override
+    public void addRequest(Request request) {
+        logicalRequests++;
+        pendingRequests.add(request);
+        int track = request.getTrackNumber();
+        int numberOfDisks = disks.size();
+
+        switch (layout) {
+            case RAID0 -> submit(stripeColumn(track, numberOfDisks), stripeRow(track, numberOfDisks), request);
+            case RAID1 -> {
+                if (request.getRequest() == Request.RequestType.WRITE) {
+                    for (int disk = 0; disk < numberOfDisks; disk++) {
+                        submit(disk, track, request);
+                    }
+                } else {
+                    submit(closestMirror(track), track, request);
+                }
+            }
+            case RAID5 -> {
+                int dataDisks = numberOfDisks - 1;
+                int stripe = stripeRow(track, dataDisks);
+                int parityDisk = stripe % numberOfDisks;
+                int dataDisk = (parityDisk + 1 + stripeColumn(track, dataDisks)) % numberOfDisks;
+
+                submit(dataDisk, stripe, request);
+                if (request.getRequest() == Request.RequestType.WRITE) {
+                    submit(parityDisk, stripe, request);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the queued requests of every disk in parallel and reports the array statistics.
+     * The time of the array is the time of the disk that finishes last, and the head of the
+     * array is reported as the head of that disk. The log and the result rows of every disk are
+     * held back in buffers of the disk until all disks have finished, and are then written in
+     * disk order, so the result log holds one row per physical request.
+     */
+    @Override
+    public void processRequests() {
+        beginProcessing();
+
+        double startTime = scheduleTime;
+        List<Callable<Double>> tasks = new ArrayList<>(disks.size());
+        StringBuilder[] diskLogs = new StringBuilder[disks.size()];
+        ResultSink[] diskResults = new ResultSink[disks.size()];
+        List<List<Completion>> diskCompletions = new ArrayList<>(disks.size());
+        for (int i = 0; i < disks.size(); i++) {
+            DiskScheduler disk = disks.get(i);
+            StringBuilder diskLog = new StringBuilder();
+            diskLogs[i] = diskLog;
+            if (getResultSink() != null) {
+                diskResults[i] = ResultSink.buffer(diskRequests[i]);
+            }
+            disk.setResultSink(diskResults[i]);
+            if (getCompletionListener() != null) {
+                // Completions are held back per disk and reported on the array clock afterwards
+                List<Completion> completions = new ArrayList<>(diskRequests[i]);
+                diskCompletions.add(completions);
+                disk.setCompletionListener((request, time) -> completions.add(new Completion(request, time)));
+            }
+            if (disk.getTelemetrySampler() != null) {
+                // The disks start from the clock of the array
+                disk.getTelemetrySampler().setClockOffset(getTelemetrySampler().getClockOffset());
+            }
+            disk.scheduleTime = startTime;
+            disk.getRequestTimes().clear();
+            tasks.add(() -> {
+                // Each disk logs into its own buffer, so the lines of the disks do not interleave
+                Logger.CAPTURE.set(diskLog);
+                try {
+                    disk.processRequests();
+                } finally {
+                    Logger.CAPTURE.remove();
+                }
+                return disk.scheduleTime;
+            });
+        }
+
+        double[] diskTimes = new double[disks.size()];
+        ExecutorService executor = Executors.newFixedThreadPool(disks.size());
+        try {
+            List<Future<Double>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                diskTimes[i] = results.get(i).get() - startTime;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < disks.size(); i++) {
+            Logger.log(ARRAY_DISK_LOG, i);
+            Logger.append(diskLogs[i]);
+            if (diskResults[i] != null) {
+                diskResults[i].drainTo(getResultSink());
+            }
+        }
+
+        if (getCompletionListener() != null) {
+            // The sort is stable, so completions at the same time stay in disk order
+            List<Completion> completions = new ArrayList<>();
+            diskCompletions.forEach(completions::addAll);
+            completions.sort(Comparator.comparingDouble(completion -> completion.time));
+            completions.forEach(completion -> getCompletionListener().completed(completion.request, completion.time));
+        }
+
+        double wallTime = 0;
+        double[] busyTimes = new double[disks.size()];
+        for (int i = 0; i < disks.size(); i++) {
+            DiskScheduler disk = disks.get(i);
+            if (diskTimes[i] >= wallTime) {
+                wallTime = diskTimes[i];
+                head = disk.head;
+            }
+            for (double requestTime : disk.getRequestTimes()) {
+                busyTimes[i] += requestTime;
+            }
+            getRequestTimes().addAll(disk.getRequestTimes());
+            disk.getRequestTimes().clear();
+            projectedHeads[i] = disk.head;
+        }
+        scheduleTime += wallTime;
+
+        logStatistics(busyTimes, wallTime);
+        logicalRequests = 0;
+        pendingRequests.clear();
+        Arrays.fill(diskRequests, 0);
+    }
+
+    /**
+     * Finds the stripe row of a logical track, row 0 holding only track 0.
+     */
+    private static int stripeRow(int track, int width) {
+        return track == 0 ? 0 : (track - 1) / width + 1;
+    }
+
+    /**
+     * Finds the position of a logical track within its stripe row.
+     */
+    private static int stripeColumn(int track, int width) {
+        return track == 0 ? 0 : (track - 1) % width;
+    }
+
+    private void submit(int disk, int physicalTrack, Request request) {
+        diskRequests[disk]++;
+        projectedHeads[disk] = physicalTrack;
+        Request diskRequest = new Request(physicalTrack, request.getRequest(),
+                request.getSectorNumber(), request.getArrivalTime());
+        diskRequest.setProcessId(request.getProcessId());
+        diskRequest.setQueueTime(request.getQueueTime());
+        disks.get(disk).addRequest(diskRequest);
+    }
+
+    private int closestMirror(int track) {
+        int closest = nextMirror;
+        for (int i = 0; i < disks.size(); i++) {
+            int disk = (nextMirror + i) % disks.size();
+            if (Math.abs(projectedHeads[disk] - track) < Math.abs(projectedHeads[closest] - track)) {
+                closest = disk;
+            }
+        }
+        nextMirror = (nextMirror + 1) % disks.size();
+        return closest;
+    }
+
+    /**
+     * Logs the throughput of the array, the utilization of every disk as its busy time over
+     * the wall time of the array, and the load imbalance between the disks.
+     */
+    private void logStatistics(double[] busyTimes, double wallTime) {
+        double throughput = wallTime > 0 ? logicalRequests * 1000 / wallTime : 0;
+        Logger.log(ARRAY_THROUGHPUT, layout, disks.size(), logicalRequests, throughput);
+
+        double maxBusyTime = 0;
+        double totalBusyTime = 0;
+        for (int i = 0; i < disks.size(); i++) {
+            double utilization = wallTime > 0 ? busyTimes[i] / wallTime * 100 : 0;
+            Logger.log(ARRAY_DISK_UTILIZATION, i, diskRequests[i], busyTimes[i], utilization);
+            maxBusyTime = Math.max(maxBusyTime, busyTimes[i]);
+            totalBusyTime += busyTimes[i];
+        }
+        double meanBusyTime = totalBusyTime / disks.size();
+        Logger.log(ARRAY_IMBALANCE, meanBusyTime > 0 ? maxBusyTime / meanBusyTime : 1.0);
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        return new ArrayList<>(pendingRequests);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return pendingRequests.size();
+    }
+
+    private static class Completion {
+        private final Request request;
+        private final double time;
+
+        Completion(Request request, double time) {
+            this.request = request;
+            this.time = time;
+        }
+    }
+}
@@ -1,21 +1,130 @@
 package denkoch;
 
-import static denkoch.Logger.INTERRUPT_HANDLED;
+import java.util.ArrayList;
+import java.util.List;
+
+import static denkoch.Logger.*;
 import static denkoch.SystemParams.INTERRUPT_TIME;
 
 /**
  * The DiskInterruptHandler class handles disk-related interrupts and provides information
  * about the handling process.
+ * <p>
+ * Completions can be coalesced the way real controllers moderate interrupts: they are
+ * collected into a batch, and a single interrupt is raised once the batch is full or its
+ * oldest completion has waited for the maximum latency. Every completion in the batch is
+ * delayed until the interrupt is raised, which trades completion latency for fewer
+ * interrupts. When coalescing, the handler listens to the completions of the
+ * {@link DiskScheduler}, so batches and their deadlines follow the disk clock; a batch that
+ * timed out is raised at its deadline when the next completion arrives or the handler is
+ * flushed. With a batch size of 1 coalescing is off and the driver reports every completion
+ * itself, which raises its own interrupt.
  */
-public class DiskInterruptHandler {
+public class DiskInterruptHandler implements DiskScheduler.CompletionListener {
+
+    private final int batchSize;
+    private final double maxLatency;
+    private final List<Request> pendingRequests;
+    private double firstPendingTime;
+    private double pendingTimeSum;
+    private double listenedHandlingTime;
+
+    private int completions;
+    private int interrupts;
+    private double totalAddedLatency;
+    private double maxAddedLatency;
 
     /**
-     * Handles the interrupt by logging the provided request.
+     * Constructs a new {@code DiskInterruptHandler} that raises one interrupt per completion.
+     */
+    public DiskInterruptHandler() {
+        this(1, 0);
+    }
+
+    /**
+     * Constructs a new {@code DiskInterruptHandler} that coalesces completions.
+     *
+     * @param batchSize  the number of completions that raise an interrupt.
+     * @param maxLatency the longest time in milliseconds a completion may wait for its interrupt.
+     */
+    public DiskInterruptHandler(int batchSize, double maxLatency) {
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxLatency = maxLatency;
+        this.pendingRequests = new ArrayList<>(this.batchSize);
+    }
+
+    /**
+     * Handles the completion of a request.
+     * <p>
+     * If the pending batch timed out before this completion, its interrupt is raised first.
+     * The completion then joins the batch, and the batch interrupt is raised if it is full.
      *
      * @param request the request associated with the disk interrupt.
+     * @param time    the simulated time at which the request completed.
+     * @return the interrupt handling time charged by this completion.
+     */
+    public double handleInterrupt(Request request, double time) {
+        double handlingTime = poll(time);
+
+        if (pendingRequests.isEmpty()) {
+            firstPendingTime = time;
+        }
+        pendingRequests.add(request);
+        pendingTimeSum += time;
+        completions++;
+
+        if (pendingRequests.size() >= batchSize) {
+            handlingTime += raiseInterrupt(time);
+        }
+        return handlingTime;
+    }
+
+    /**
+     * Handles a completion reported by the disk scheduler. The handling time is collected and
+     * charged once the disk has finished.
+     *
+     * @param request the completed request.
+     * @param time    the disk clock at the completion.
+     */
+    @Override
+    public void completed(Request request, double time) {
+        listenedHandlingTime += handleInterrupt(request, time);
+    }
+
+    /**
+     * Gets the interrupt handling time charged by the completions reported by the disk scheduler.
+     *
+     * @return the handling time in milliseconds.
      */
-    public void handleInterrupt(Request request) {
-        Logger.log(INTERRUPT_HANDLED, request);
+    public double getListenedHandlingTime() {
+        return listenedHandlingTime;
+    }
+
+    /**
+     * Raises the interrupt of the pending batch if its oldest completion has waited for the
+     * maximum latency by the specified time.
+     *
+     * @param time the current simulated time of the clock the completions are on.
+     * @return the interrupt handling time charged, or {@code 0} if no interrupt was raised.
+     */
+    public double poll(double time) {
+        if (pendingRequests.isEmpty() || time - firstPendingTime < maxLatency) {
+            return 0;
+        }
+        return raiseInterrupt(firstPendingTime + maxLatency);
+    }
+
+    /**
+     * Raises the interrupt for any completions still waiting in the batch.
+     *
+     * @param time the simulated time at which the handler is flushed.
+     * @return the interrupt handling time charged by the flush.
+     */
+    public double flush(double time) {
+        if (pendingRequests.isEmpty()) {
+            return 0;
+        }
+        return raiseInterrupt(Math.min(time, firstPendingTime + maxLatency));
     }
 
     /**
@@ -26,4 +135,34 @@ public class DiskInterruptHandler {
     public double getInterruptHandlingTime() {
         return INTERRUPT_TIME;
     }
+
+    /**
+     * Logs how many interrupts were saved by coalescing and how much latency it added.
+     * Nothing is logged when coalescing is off.
+     */
+    public void logStatistics() {
+        if (batchSize == 1) {
+            return;
+        }
+        int saved = completions - interrupts;
+        double meanAddedLatency = completions > 0 ? totalAddedLatency / completions : 0;
+        Logger.log(INTERRUPT_STATISTICS, completions, interrupts, saved, saved * INTERRUPT_TIME);
+        Logger.log(INTERRUPT_LATENCY, meanAddedLatency, maxAddedLatency);
+    }
+
+    private double raiseInterrupt(double time) {
+        if (batchSize == 1) {
+            Logger.log(INTERRUPT_HANDLED, pendingRequests.get(0));
+        } else {
+            Logger.log(INTERRUPT_BATCH_HANDLED, pendingRequests);
+        }
+
+        interrupts++;
+        totalAddedLatency += pendingRequests.size() * time - pendingTimeSum;
+        maxAddedLatency = Math.max(maxAddedLatency, time - firstPendingTime);
+
+        pendingRequests.clear();
+        pendingTimeSum = 0;
+        return getInterruptHandlingTime();
+    }
 }
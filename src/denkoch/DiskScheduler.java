@@ -3,9 +3,9 @@ package denkoch;
 import java.util.ArrayList;
 import java.util.List;
 
+import static denkoch.Logger.INITIAL_HEAD_POSITION;
 import static denkoch.Logger.MOVE_DISK_HEAD;
 import static denkoch.Logger.TOTAL_SCHEDULING_TIME;
-import static denkoch.SystemParams.*;
 import static denkoch.SystemParams.AVG_ROTATION_DELAY;
 
 /**
@@ -21,10 +21,25 @@ public abstract class DiskScheduler {
         ASC, DESC
     }
 
+    /**
+     * Receives every request the disk completes, with the disk clock at its completion.
+     */
+    interface CompletionListener {
+        void completed(Request request, double time);
+    }
+
     protected double scheduleTime;
     protected Integer head;
     protected Order order;
+    protected ServiceTimeModel serviceTimeModel;
+    private TelemetrySampler telemetrySampler;
+    private ResultSink resultSink;
+    private CompletionListener completionListener;
     private final List<Double> requestTimes;
+    private int[] sweepPositions;
+    private double[] sweepTimes;
+    private int sweepRemaining;
+    private double processingStart;
 
     /**
      * Constructs a new {@code DiskScheduler} with the specified initial disk head position.
@@ -33,17 +48,90 @@ public abstract class DiskScheduler {
      */
     public DiskScheduler(Integer head) {
         this.head = head;
+        this.serviceTimeModel = new FixedServiceTimeModel();
         requestTimes = new ArrayList<>();
+        sweepPositions = new int[1];
+        sweepTimes = new double[0];
     }
 
     public void setOrder(Order order) {
         this.order = order;
     }
 
+    public void setServiceTimeModel(ServiceTimeModel serviceTimeModel) {
+        this.serviceTimeModel = serviceTimeModel;
+    }
+
+    /**
+     * Attaches a sampler that records the scheduler state after every serviced request.
+     *
+     * @param telemetrySampler the {@link TelemetrySampler}, or {@code null} to stop sampling.
+     */
+    public void setTelemetrySampler(TelemetrySampler telemetrySampler) {
+        this.telemetrySampler = telemetrySampler;
+    }
+
+    public TelemetrySampler getTelemetrySampler() {
+        return telemetrySampler;
+    }
+
+    /**
+     * Attaches a sink that records every serviced request in a result log.
+     *
+     * @param resultSink the {@link ResultSink}, or {@code null} to stop recording.
+     */
+    public void setResultSink(ResultSink resultSink) {
+        this.resultSink = resultSink;
+    }
+
+    public ResultSink getResultSink() {
+        return resultSink;
+    }
+
+    /**
+     * Attaches a listener that is told about every completed request on the disk clock.
+     *
+     * @param completionListener the {@link CompletionListener}, or {@code null} to stop reporting.
+     */
+    public void setCompletionListener(CompletionListener completionListener) {
+        this.completionListener = completionListener;
+    }
+
+    public CompletionListener getCompletionListener() {
+        return completionListener;
+    }
+
     public abstract void addRequest(Request request);
 
     public abstract void processRequests();
 
+    /**
+     * Gets the requests that have been added but not yet processed.
+     *
+     * @return a new list with the pending requests.
+     */
+    public abstract List<Request> getPendingRequests();
+
+    /**
+     * Gets the number of requests queued for the disk and not yet serviced, excluding the
+     * rest of a sweep in progress.
+     *
+     * Called after every serviced request, so implementations count their queues without
+     * allocating.
+     *
+     * @return the queue depth.
+     */
+    public abstract int getQueueDepth();
+
+    /**
+     * Logs the initial head position and notes the start of processing, which is the queue
+     * time of requests that were not given one. Called at the start of {@link #processRequests()}.
+     */
+    protected void beginProcessing() {
+        Logger.log(INITIAL_HEAD_POSITION, head);
+        processingStart = scheduleTime;
+    }
+
     /**
      * Gets and logs the total scheduling time accumulated during processing.
      *
@@ -56,28 +144,77 @@ public abstract class DiskScheduler {
 
     /**
      * Performs the disk head movement to the track specified by a request.
-     * Calculates and accumulates the time taken for the movement.
+     * Calculates the service time with the scheduler's {@link ServiceTimeModel} as the sum of
+     * the seek, the rotational delay and the transfer, and accumulates it. The seek is recorded
+     * in the result log as charged.
      *
      * @param request the {@link Request} containing the target track.
      */
     public void performHeadMovement(Request request) {
         int track = request.getTrackNumber();
-        int distance = Math.abs(track - head);
-        double request_time;
+        double seekTime = serviceTimeModel.seekTime(head, track);
+        double rotationalDelay = serviceTimeModel.rotationalDelay(track, request.getSectorNumber(), scheduleTime + seekTime);
+        completeRequest(request, seekTime, seekTime + rotationalDelay + serviceTimeModel.transferTime(track));
+    }
 
-        if (track == 0 || track == NUMBER_OF_TRACKS) {
-            request_time = TIME_TO_BOUNDARY_TRACK;
-        } else {
-            request_time = distance * TIME_PER_TRACK;
+    /**
+     * Performs the disk head movements for a whole sweep of requests in service order.
+     * <p>
+     * Under the {@link FixedServiceTimeModel} the service times of the sweep are computed in
+     * one batch by {@link BatchServiceTimes}; other models depend on the simulated time and
+     * are computed request by request.
+     *
+     * @param requests the requests of the sweep in the order they are serviced.
+     */
+    public void performSweep(List<Request> requests) {
+        int count = requests.size();
+        if (serviceTimeModel.getClass() != FixedServiceTimeModel.class) {
+            for (int i = 0; i < count; i++) {
+                sweepRemaining = count - i - 1;
+                performHeadMovement(requests.get(i));
+            }
+            return;
         }
-        request_time += AVG_ROTATION_DELAY;
+
+        if (sweepTimes.length < count) {
+            sweepPositions = new int[count + 1];
+            sweepTimes = new double[count];
+        }
+        sweepPositions[0] = head;
+        for (int i = 0; i < count; i++) {
+            sweepPositions[i + 1] = requests.get(i).getTrackNumber();
+        }
+
+        BatchServiceTimes.compute(sweepPositions, count, sweepTimes);
+        for (int i = 0; i < count; i++) {
+            sweepRemaining = count - i - 1;
+            // The fixed model charges the average rotational delay on top of the seek
+            completeRequest(requests.get(i), sweepTimes[i] - AVG_ROTATION_DELAY, sweepTimes[i]);
+        }
+    }
+
+    private void completeRequest(Request request, double seekTime, double request_time) {
+        int track = request.getTrackNumber();
 
         requestTimes.add(request_time);
 
         Logger.log(MOVE_DISK_HEAD, track, request_time);
 
+        if (resultSink != null) {
+            double queueTime = request.getQueueTime() >= 0 ? request.getQueueTime() : processingStart;
+            resultSink.record(request, Math.max(0, scheduleTime - queueTime), seekTime, request_time);
+        }
+
         scheduleTime += request_time;
         head = track;
+
+        if (completionListener != null) {
+            completionListener.completed(request, scheduleTime);
+        }
+
+        if (telemetrySampler != null) {
+            telemetrySampler.sample(scheduleTime, track, getQueueDepth() + sweepRemaining);
+        }
     }
 
     public List<Double> getRequestTimes() {
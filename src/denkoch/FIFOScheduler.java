@@ -1,6 +1,8 @@
 package denkoch;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import static denkoch.Logger.*;
@@ -32,17 +34,25 @@ public class FIFOScheduler extends DiskScheduler {
 
     /**
      * Processes all requests in the FIFO queue in the order they were added.
-     * The disk head is moved to each request's track, and the time spent on each request is logged.
+     * The whole queue is serviced as one sweep; the disk head is moved to each request's track,
+     * and the time spent on each request is logged.
      */
     @Override
     public void processRequests() {
-        Logger.log(INITIAL_HEAD_POSITION, head);
-
-        while (!requests.isEmpty()) {
-            Request request = requests.poll();
-            if (request != null) {
-                performHeadMovement(request);
-            }
-        }
+        beginProcessing();
+
+        List<Request> sweep = new ArrayList<>(requests);
+        requests.clear();
+        performSweep(sweep);
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return requests.size();
     }
 }
@@ -1,10 +1,8 @@
 package denkoch;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static denkoch.Logger.FLOOK_QUEUES;
-import static denkoch.Logger.INITIAL_HEAD_POSITION;
 
 /**
  * Implements the FLOOK disk scheduling algorithm, a variant of LOOK.
@@ -18,11 +16,17 @@ public class FLOOKScheduler extends DiskScheduler {
 
     private final List<Request> activeRequests;
     private final List<Request> waitingRequests;
+    private final List<Request> requestsAsc;
+    private final List<Request> requestsDesc;
+    private final TrackOrdering trackOrdering;
 
     public FLOOKScheduler(Integer head) {
         super(head);
         this.activeRequests = new ArrayList<>();
         this.waitingRequests = new ArrayList<>();
+        this.requestsAsc = new ArrayList<>();
+        this.requestsDesc = new ArrayList<>();
+        this.trackOrdering = new TrackOrdering();
     }
 
     /**
@@ -44,7 +48,7 @@ public class FLOOKScheduler extends DiskScheduler {
      */
     @Override
     public void processRequests() {
-        Logger.log(INITIAL_HEAD_POSITION, head);
+        beginProcessing();
 
         splitRequests();
         Logger.log(FLOOK_QUEUES, activeRequests, waitingRequests);
@@ -57,39 +61,18 @@ public class FLOOKScheduler extends DiskScheduler {
             }
 
             // Separate requests into ascending and descending order based on the head's position
-            List<Request> requestsAsc = activeRequests.stream()
-                    .filter(request -> request.getTrackNumber() >= head)
-                    .sorted(Comparator.comparing(Request::getTrackNumber))
-                    .collect(Collectors.toList());
+            trackOrdering.split(activeRequests, head, requestsAsc, requestsDesc);
+            activeRequests.clear();
 
-            List<Request> requestsDesc = activeRequests.stream()
-                    .filter(request -> request.getTrackNumber() < head)
-                    .sorted(Comparator.comparing(Request::getTrackNumber).reversed())
-                    .collect(Collectors.toList());
-
-            // Process requests based on the init order
+            // Process requests based on the init order, both directions as a single sweep
             switch (order) {
                 case ASC -> {
-//                    Collections.reverse(requestsDesc);
-                    requestsAsc.forEach(request -> {
-                        performHeadMovement(request);
-                        activeRequests.remove(request);
-                    });
-                    requestsDesc.forEach(request -> {
-                        performHeadMovement(request);
-                        activeRequests.remove(request);
-                    });
+                    requestsAsc.addAll(requestsDesc);
+                    performSweep(requestsAsc);
                 }
                 case DESC -> {
-//                    Collections.reverse(requestsAsc);
-                    requestsDesc.forEach(request -> {
-                        performHeadMovement(request);
-                        activeRequests.remove(request);
-                    });
-                    requestsAsc.forEach(request -> {
-                        performHeadMovement(request);
-                        activeRequests.remove(request);
-                    });
+                    requestsDesc.addAll(requestsAsc);
+                    performSweep(requestsDesc);
                 }
             }
         }
@@ -104,4 +87,16 @@ public class FLOOKScheduler extends DiskScheduler {
 //        activeRequests.addAll(waitingRequests.subList(0, waitingRequests.size() / 2 + 1));
         waitingRequests.removeAll(activeRequests);
     }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        List<Request> pendingRequests = new ArrayList<>(activeRequests);
+        pendingRequests.addAll(waitingRequests);
+        return pendingRequests;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return activeRequests.size() + waitingRequests.size();
+    }
 }
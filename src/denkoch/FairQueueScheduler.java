@@ -0,0 +1,212 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.QUANTUM;
+
+/**
+ * Implements a per-process fair-queueing disk scheduler.
+ * <p>
+ * Every process has its own queue, serviced in LOOK order. Disk time is shared between the
+ * processes by virtual time: the process with the smallest virtual time gets the disk for a
+ * budget of {@link SystemParams#QUANTUM} milliseconds, and its virtual time then advances by
+ * the disk time it used divided by its weight. Backlogged processes are kept in a service
+ * tree ordered by virtual time, so picking the next process costs O(log P). A process that
+ * becomes backlogged again starts from the current system virtual time, so it cannot bank
+ * credit while idle.
+ * <p>
+ * Requests become eligible at their arrival time. When no process is backlogged, the disk
+ * idles until the next arrival, and the idle time counts towards the scheduling time.
+ */
+public class FairQueueScheduler extends DiskScheduler {
+
+    private static class ProcessQueue {
+        private final int processId;
+        private final TrackQueue requests;
+        private double weight;
+        private double virtualTime;
+        private Order direction;
+
+        private int servicedRequests;
+        private double serviceTime;
+        private double totalLatency;
+        private double maxLatency;
+
+        ProcessQueue(int processId) {
+            this.processId = processId;
+            this.requests = new TrackQueue();
+            this.weight = 1;
+        }
+
+        /**
+         * Removes the next request of the LOOK sweep over this queue.
+         */
+        Request pollNext(int head) {
+            int track = nextTrack(head);
+            if (track < 0) {
+                direction = direction == Order.DESC ? Order.ASC : Order.DESC;
+                track = nextTrack(head);
+            }
+            return requests.poll(track);
+        }
+
+        private int nextTrack(int head) {
+            return direction == Order.DESC ? requests.floorTrack(head) : requests.ceilingTrack(head);
+        }
+    }
+
+    private final Map<Integer, ProcessQueue> queues;
+    private final TreeSet<ProcessQueue> serviceTree;
+    private final PriorityQueue<Request> futureRequests;
+    private ProcessQueue activeQueue;
+    private double systemVirtualTime;
+
+    public FairQueueScheduler(Integer head) {
+        super(head);
+        this.queues = new HashMap<>();
+        this.serviceTree = new TreeSet<>(Comparator
+                .comparingDouble((ProcessQueue queue) -> queue.virtualTime)
+                .thenComparingInt(queue -> queue.processId));
+        this.futureRequests = new PriorityQueue<>(Comparator.comparingDouble(Request::getArrivalTime));
+    }
+
+    /**
+     * Sets the share of disk time of a process relative to the other processes.
+     *
+     * @param processId the ID of the process.
+     * @param weight    the weight of the process; the default weight is 1.
+     */
+    public void setWeight(int processId, double weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException(INVALID_WEIGHT_ERROR);
+        }
+        ProcessQueue queue = queues.computeIfAbsent(processId, ProcessQueue::new);
+        boolean backlogged = serviceTree.remove(queue);
+        queue.weight = weight;
+        if (backlogged) {
+            serviceTree.add(queue);
+        }
+    }
+
+    /**
+     * Adds a new request, which joins the queue of its process at its arrival time.
+     *
+     * @param request the {@link Request} to add to the scheduler.
+     */
+    @Override
+    public void addRequest(Request request) {
+        futureRequests.add(request);
+    }
+
+    private void enqueue(Request request) {
+        ProcessQueue queue = queues.computeIfAbsent(request.getProcessId(), ProcessQueue::new);
+        // The queue in service is out of the service tree until its budget ends
+        if (queue.requests.isEmpty() && queue != activeQueue) {
+            queue.virtualTime = Math.max(queue.virtualTime, systemVirtualTime);
+            if (queue.direction == null) {
+                queue.direction = order;
+            }
+            queue.requests.add(request);
+            serviceTree.add(queue);
+        } else {
+            queue.requests.add(request);
+        }
+    }
+
+    /**
+     * Processes all requests, granting the disk to the process with the smallest virtual
+     * time for one budget at a time.
+     */
+    @Override
+    public void processRequests() {
+        beginProcessing();
+        double startTime = scheduleTime;
+
+        while (!futureRequests.isEmpty() || !serviceTree.isEmpty()) {
+            admitArrivals();
+            if (serviceTree.isEmpty()) {
+                scheduleTime = futureRequests.peek().getArrivalTime();
+                continue;
+            }
+
+            ProcessQueue queue = serviceTree.pollFirst();
+            activeQueue = queue;
+            systemVirtualTime = queue.virtualTime;
+
+            double budgetStart = scheduleTime;
+            while (!queue.requests.isEmpty() && scheduleTime - budgetStart < QUANTUM) {
+                double requestStart = scheduleTime;
+                Request request = queue.pollNext(head);
+                performHeadMovement(request);
+
+                double latency = scheduleTime - request.getArrivalTime();
+                queue.servicedRequests++;
+                queue.serviceTime += scheduleTime - requestStart;
+                queue.totalLatency += latency;
+                queue.maxLatency = Math.max(queue.maxLatency, latency);
+                admitArrivals();
+            }
+
+            queue.virtualTime += (scheduleTime - budgetStart) / queue.weight;
+            activeQueue = null;
+            if (!queue.requests.isEmpty()) {
+                serviceTree.add(queue);
+            }
+        }
+
+        logStatistics(scheduleTime - startTime);
+    }
+
+    private void admitArrivals() {
+        while (!futureRequests.isEmpty() && futureRequests.peek().getArrivalTime() <= scheduleTime) {
+            Request request = futureRequests.poll();
+            request.setQueueTime(request.getArrivalTime());
+            enqueue(request);
+        }
+    }
+
+    /**
+     * Logs the throughput, share of disk time and latency of every process. Latency is the time
+     * from the arrival of a request until it completes.
+     */
+    private void logStatistics(double elapsedTime) {
+        new TreeMap<>(queues).values().forEach(queue -> {
+            if (queue.servicedRequests == 0) {
+                return;
+            }
+            double throughput = elapsedTime > 0 ? queue.servicedRequests * 1000 / elapsedTime : 0;
+            double share = elapsedTime > 0 ? queue.serviceTime / elapsedTime * 100 : 0;
+            Logger.log(FAIR_QUEUE_STATISTICS, queue.processId, queue.weight, queue.servicedRequests,
+                    throughput, share, queue.totalLatency / queue.servicedRequests, queue.maxLatency);
+            queue.servicedRequests = 0;
+            queue.serviceTime = 0;
+            queue.totalLatency = 0;
+            queue.maxLatency = 0;
+        });
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        List<Request> pendingRequests = new ArrayList<>();
+        new TreeMap<>(queues).values().forEach(queue -> pendingRequests.addAll(queue.requests.toList()));
+        pendingRequests.addAll(futureRequests);
+        return pendingRequests;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ProcessQueue queue : queues.values()) {
+            depth += queue.requests.size();
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,31 @@
+package denkoch;
+
+import static denkoch.SystemParams.*;
+
+/**
+ * The original service time model of the simulator.
+ * <p>
+ * Seek time grows linearly with the distance, boundary tracks cost a flat
+ * {@link SystemParams#TIME_TO_BOUNDARY_TRACK}, and every request waits the average
+ * rotational delay. Sector transfer time is not charged.
+ */
+public class FixedServiceTimeModel implements ServiceTimeModel {
+
+    @Override
+    public double seekTime(int fromTrack, int toTrack) {
+        if (toTrack == 0 || toTrack == NUMBER_OF_TRACKS) {
+            return TIME_TO_BOUNDARY_TRACK;
+        }
+        return Math.abs(toTrack - fromTrack) * TIME_PER_TRACK;
+    }
+
+    @Override
+    public double rotationalDelay(int track, int sector, double time) {
+        return AVG_ROTATION_DELAY;
+    }
+
+    @Override
+    public double transferTime(int track) {
+        return 0;
+    }
+}
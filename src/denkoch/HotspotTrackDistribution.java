@@ -0,0 +1,40 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Sends a fixed share of the requests to a small contiguous hot region of the disk and
+ * spreads the rest uniformly over the remaining tracks.
+ */
+public class HotspotTrackDistribution implements TrackDistribution {
+
+    private final int hotStart;
+    private final int hotTracks;
+    private final double hotProbability;
+
+    /**
+     * Constructs a new {@code HotspotTrackDistribution}.
+     *
+     * @param hotStart       the first track of the hot region.
+     * @param trackFraction  the fraction of the tracks that belong to the hot region.
+     * @param hotProbability the probability that a request goes to the hot region.
+     */
+    public HotspotTrackDistribution(int hotStart, double trackFraction, double hotProbability) {
+        this.hotTracks = Math.max(1, Math.min(NUMBER_OF_TRACKS, (int) (NUMBER_OF_TRACKS * trackFraction)));
+        this.hotStart = Math.floorMod(hotStart, NUMBER_OF_TRACKS);
+        this.hotProbability = hotProbability;
+    }
+
+    @Override
+    public int nextTrack(SplittableRandom random) {
+        int offset;
+        if (hotTracks == NUMBER_OF_TRACKS || random.nextDouble() < hotProbability) {
+            offset = random.nextInt(hotTracks);
+        } else {
+            offset = hotTracks + random.nextInt(NUMBER_OF_TRACKS - hotTracks);
+        }
+        return (hotStart + offset) % NUMBER_OF_TRACKS;
+    }
+}
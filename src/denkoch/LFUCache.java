@@ -1,10 +1,11 @@
 package denkoch;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 
-import static denkoch.Logger.ADDED_TO_CACHE;
-import static denkoch.Logger.MOVED_WITHIN_CACHE;
+import static denkoch.Logger.*;
 import static denkoch.SystemParams.*;
 
 /**
@@ -19,11 +20,25 @@ public class LFUCache extends Cache {
     private final LinkedList<Buffer> leftSegment;
     private final LinkedList<Buffer> middleSegment;
     private final LinkedList<Buffer> rightSegment;
+    private int leftSegmentSize;
+    private int middleSegmentSize;
+    private int rightSegmentSize;
+    private SegmentTuner segmentTuner;
+
+    private long hits;
+    private long accesses;
 
     public LFUCache() {
         this.leftSegment = new LinkedList<>();
         this.middleSegment = new LinkedList<>();
         this.rightSegment = new LinkedList<>();
+        this.leftSegmentSize = LEFT_SEGMENT_SIZE;
+        this.middleSegmentSize = MIDDLE_SEGMENT_SIZE;
+        this.rightSegmentSize = RIGHT_SEGMENT_SIZE;
+    }
+
+    public void setSegmentTuner(SegmentTuner segmentTuner) {
+        this.segmentTuner = segmentTuner;
     }
 
     /**
@@ -35,7 +50,8 @@ public class LFUCache extends Cache {
      */
     @Override
     public Buffer getBuffer(Integer trackId) {
-        if (containsBuffer(trackId)) {
+        boolean hit = containsBuffer(trackId);
+        if (hit) {
             Buffer buffer = super.getBuffer(trackId);
             if (leftSegment.contains(buffer)) {
                 leftSegment.remove(buffer);
@@ -58,7 +74,173 @@ public class LFUCache extends Cache {
             Logger.log(ADDED_TO_CACHE, buffer);
         }
 
-        return super.getBuffer(trackId);
+        Buffer buffer = super.getBuffer(trackId);
+        recordAccess(hit);
+        return buffer;
+    }
+
+    /**
+     * Counts an access to the cache and reports it to the {@link SegmentTuner}, if any.
+     * {@link #getBuffer(Integer)} counts its own accesses; callers that serve a hit by other
+     * means, such as {@link #takeBuffer(Integer)}, count the access here.
+     *
+     * @param hit {@code true} if the access was a hit; {@code false} otherwise.
+     */
+    public void recordAccess(boolean hit) {
+        accesses++;
+        if (hit) {
+            hits++;
+        }
+        if (segmentTuner != null) {
+            segmentTuner.recordAccess(hit);
+        }
+    }
+
+    /**
+     * Removes a buffer from the cache and hands it over, so that it can later be put back with
+     * {@link #reinsert(Integer, Integer)} without losing its frequency.
+     *
+     * @param trackId the track ID of the buffer to take.
+     * @return the removed {@link Buffer}, or {@code null} if the track is not cached.
+     */
+    public Buffer takeBuffer(Integer trackId) {
+        Buffer buffer = super.getBuffer(trackId);
+        if (buffer != null) {
+            removeBuffer(trackId);
+        }
+        return buffer;
+    }
+
+    /**
+     * Adds a buffer with a known frequency to the left segment, as a new buffer would be added.
+     * If the track is already cached, it keeps the higher of the two frequencies.
+     *
+     * @param trackId   the track ID of the buffer.
+     * @param frequency the frequency the buffer had when it was taken out of the cache.
+     */
+    public void reinsert(Integer trackId, Integer frequency) {
+        Buffer cached = super.getBuffer(trackId);
+        if (cached != null) {
+            if (cached.getFrequency() >= frequency) {
+                return;
+            }
+            removeBuffer(trackId);
+        }
+        Buffer buffer = new Buffer(trackId, frequency);
+        shiftAndAddBuffer(buffer);
+        putBuffer(trackId, buffer);
+        Logger.log(ADDED_TO_CACHE, buffer);
+    }
+
+    /**
+     * Changes the capacity of the segments while keeping the cached buffers.
+     * <p>
+     * Buffers that no longer fit into a shrunk segment are pushed down into the next segment
+     * the same way new buffers push them, and the right segment evicts its least frequently
+     * used buffers if it overflows. Grown segments fill up with later accesses.
+     *
+     * @param leftSize   the new capacity of the left segment.
+     * @param middleSize the new capacity of the middle segment.
+     * @param rightSize  the new capacity of the right segment.
+     */
+    public void resize(int leftSize, int middleSize, int rightSize) {
+        if (leftSize < 1 || middleSize < 1 || rightSize < 1) {
+            throw new IllegalArgumentException(INVALID_SEGMENT_SIZE_ERROR);
+        }
+        leftSegmentSize = leftSize;
+        middleSegmentSize = middleSize;
+        rightSegmentSize = rightSize;
+
+        while (leftSegment.size() > leftSegmentSize) {
+            middleSegment.addFirst(leftSegment.removeLast());
+        }
+        while (middleSegment.size() > middleSegmentSize) {
+            rightSegment.addFirst(middleSegment.removeLast());
+        }
+        while (rightSegment.size() > rightSegmentSize) {
+            removeBufferFromRightSegment();
+        }
+    }
+
+    /**
+     * Gets the capacity of the left, middle and right segments.
+     *
+     * @return the segment capacities in that order.
+     */
+    public int[] getSegmentSizes() {
+        return new int[]{leftSegmentSize, middleSegmentSize, rightSegmentSize};
+    }
+
+    /**
+     * Gets the left, middle and right segments, most recently added buffers first.
+     *
+     * @return read-only views of the segments in that order.
+     */
+    public List<List<Buffer>> getSegments() {
+        return List.of(Collections.unmodifiableList(leftSegment),
+                Collections.unmodifiableList(middleSegment),
+                Collections.unmodifiableList(rightSegment));
+    }
+
+    /**
+     * Replaces the contents of the cache, for example when resuming from a checkpoint.
+     *
+     * @param segmentSizes the capacity of the left, middle and right segments.
+     * @param segments     the buffers of the left, middle and right segments, most recently added first.
+     */
+    public void restore(int[] segmentSizes, List<List<Buffer>> segments) {
+        List<LinkedList<Buffer>> ownSegments = List.of(leftSegment, middleSegment, rightSegment);
+        for (int i = 0; i < ownSegments.size(); i++) {
+            ownSegments.get(i).forEach(buffer -> super.removeBuffer(buffer.getBufferId()));
+            ownSegments.get(i).clear();
+        }
+
+        leftSegmentSize = segmentSizes[0];
+        middleSegmentSize = segmentSizes[1];
+        rightSegmentSize = segmentSizes[2];
+        for (int i = 0; i < ownSegments.size(); i++) {
+            for (Buffer buffer : segments.get(i)) {
+                ownSegments.get(i).addLast(buffer);
+                putBuffer(buffer.getBufferId(), buffer);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buffers currently held by a segment.
+     *
+     * @param segment the segment index: 0 for left, 1 for middle, 2 for right.
+     * @return the number of buffers in the segment.
+     */
+    public int getSegmentOccupancy(int segment) {
+        return switch (segment) {
+            case 0 -> leftSegment.size();
+            case 1 -> middleSegment.size();
+            default -> rightSegment.size();
+        };
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getAccesses() {
+        return accesses;
+    }
+
+    /**
+     * Removes the buffer associated with the specified track ID from its segment and from the cache.
+     *
+     * @param trackId the track ID of the buffer to remove.
+     */
+    @Override
+    public void removeBuffer(Integer trackId) {
+        Buffer buffer = super.getBuffer(trackId);
+        if (buffer == null) return;
+        if (!leftSegment.remove(buffer) && !middleSegment.remove(buffer)) {
+            rightSegment.remove(buffer);
+        }
+        super.removeBuffer(trackId);
     }
 
     /**
@@ -68,11 +250,11 @@ public class LFUCache extends Cache {
      * @param buffer the buffer to add to the cache.
      */
     private void shiftAndAddBuffer(Buffer buffer) {
-        if (leftSegment.size() == LEFT_SEGMENT_SIZE) {
+        if (leftSegment.size() >= leftSegmentSize) {
             Buffer lastLeftSegment = leftSegment.removeLast();
-            if (middleSegment.size() == MIDDLE_SEGMENT_SIZE) {
+            if (middleSegment.size() >= middleSegmentSize) {
                 Buffer lastMiddleSegment = middleSegment.removeLast();
-                if (rightSegment.size() == RIGHT_SEGMENT_SIZE) {
+                if (rightSegment.size() >= rightSegmentSize) {
                     removeBufferFromRightSegment();
                 }
                 rightSegment.addFirst(lastMiddleSegment);
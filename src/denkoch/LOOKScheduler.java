@@ -1,8 +1,6 @@
 package denkoch;
 
-import java.util.*;
-
-import static denkoch.Logger.INITIAL_HEAD_POSITION;
+import java.util.List;
 
 /**
  * Implements the LOOK disk scheduling algorithm.
@@ -11,18 +9,26 @@ import static denkoch.Logger.INITIAL_HEAD_POSITION;
  * in one direction (ascending or descending) until no more requests remain
  * in that direction, then reverses if necessary. It avoids unnecessary
  * traversal to tracks with no requests.
+ * <p>
+ * The scheduler works online: pending requests are kept in a {@link TrackQueue}, and each
+ * dispatch moves the head to the nearest pending track in the current direction. Requests
+ * added between dispatches are picked up by the sweep that is already in progress.
+ * <p>
+ * As in the original two-list implementation, requests on the head's track belong to the
+ * ascending half: a descending run only services the head's track once it has moved there.
  */
 public class LOOKScheduler extends DiskScheduler {
 
-    private final List<Request> requests;
+    private final TrackQueue requests;
+    private boolean movedInDirection;
 
     public LOOKScheduler(Integer head) {
         super(head);
-        this.requests = new ArrayList<>();
+        this.requests = new TrackQueue();
     }
 
     /**
-     * Adds a new request to the list of requests.
+     * Adds a new request to the track-indexed queue.
      *
      * @param request the {@link Request} to add to the scheduler.
      */
@@ -34,49 +40,71 @@ public class LOOKScheduler extends DiskScheduler {
     /**
      * Processes all requests using the LOOK algorithm.
      * <p>
-     * Requests are first divided into two lists: those with tracks greater than
-     * or equal to the current head position, and those with tracks less than the
-     * current head position. Requests are then processed based on the scheduler's
-     * current order (`ASC` or `DESC`).
+     * Requests are dispatched one by one, starting in the scheduler's current order
+     * (`ASC` or `DESC`), until the queue is empty.
      */
     @Override
     public void processRequests() {
-        Logger.log(INITIAL_HEAD_POSITION, head);
+        beginProcessing();
+        movedInDirection = false;
 
-        // Separate requests into ascending and descending order based on the head's position
-        List<Request> requestsAsc = requests.stream()
-                .filter(request -> request.getTrackNumber() >= head)
-                .sorted(Comparator.comparing(Request::getTrackNumber))
-                .toList();
+        while (dispatchNext()) {
+            // Each dispatch services a single request
+        }
+    }
 
-        List<Request> requestsDesc = requests.stream()
-                .filter(request -> request.getTrackNumber() < head)
-                .sorted(Comparator.comparing(Request::getTrackNumber).reversed())
-                .toList();
+    /**
+     * Services the next request of the elevator sweep.
+     * <p>
+     * The head moves to the nearest pending track in the current direction, a request on the
+     * current track being serviced first unless a descending run has just started. The
+     * direction is reversed only when no requests remain ahead of the head.
+     *
+     * @return {@code true} if a request was serviced; {@code false} if the queue is empty.
+     */
+    public boolean dispatchNext() {
+        if (requests.isEmpty()) {
+            return false;
+        }
 
-        // Process requests based on the init order
-        switch (order) {
-            case ASC -> {
-                requestsAsc.forEach(request -> {
-                    performHeadMovement(request);
-                    requests.remove(request);
-                });
-                requestsDesc.forEach(request -> {
-                    performHeadMovement(request);
-                    requests.remove(request);
-                });
-            }
-            case DESC -> {
-                requestsDesc.forEach(request -> {
-                    performHeadMovement(request);
-                    requests.remove(request);
-                });
-                requestsAsc.forEach(request -> {
-                    performHeadMovement(request);
-                    requests.remove(request);
-                });
-            }
+        int track = nextTrack();
+        if (track < 0) {
+            order = order == Order.DESC ? Order.ASC : Order.DESC;
+            movedInDirection = false;
+            track = nextTrack();
         }
 
+        performHeadMovement(requests.poll(track));
+        movedInDirection = true;
+        return true;
+    }
+
+    /**
+     * Services requests of the elevator sweep while the disk clock is behind the given time.
+     * A request that starts before the time is completed, even if it finishes after it.
+     *
+     * @param time the simulated time to catch up with.
+     */
+    public void dispatchUntil(double time) {
+        while (scheduleTime < time && dispatchNext()) {
+            // Each dispatch services a single request
+        }
+    }
+
+    private int nextTrack() {
+        if (order == Order.DESC) {
+            return requests.floorTrack(movedInDirection ? head : head - 1);
+        }
+        return requests.ceilingTrack(head);
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        return requests.toList();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return requests.size();
     }
 }
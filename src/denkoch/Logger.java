@@ -2,30 +2,128 @@ package denkoch;
 
 public interface Logger {
 
-    String SELECT_SCHEDULER = "Select disk scheduler {FIFO, LOOK, FLOOK}: ";
+    String SELECT_SCHEDULER = "Select disk scheduler {FIFO, LOOK, FLOOK, SPTF, FQ, AS, ADAPTIVE}: ";
     String YES = "YES";
     String NO = "NO";
     String SELECT_ORDER = "Select disk scheduler order {ASC, DESC}: ";
-    String GENERATE_REQUESTS = "Generate requests? {" + YES + ", " + NO + "}: ";
+    String SELECT_SERVICE_TIME_MODEL = "Select service time model {FIXED, MECHANICAL, ZONED} [" +
+            SystemParams.DEFAULT_SERVICE_TIME_MODEL + "]: ";
+    String SELECT_ARRAY_LAYOUT = "Select disk array layout {SINGLE, RAID0, RAID1, RAID5} [" +
+            SystemParams.DEFAULT_ARRAY_LAYOUT + "]: ";
+    String RESUME = "RESUME";
+    String GENERATE_REQUESTS = "Generate requests? {" + YES + ", " + NO + ", " + RESUME + "}: ";
+    String SELECT_WORKLOAD = "Select workload {UNIFORM, ZIPF, HOTSPOT, SEQUENTIAL, MIXED} [" +
+            SystemParams.DEFAULT_WORKLOAD + "]: ";
 
     String REQUEST_OPERATION_INFO = "DRIVER: Request {processId = %d, track = %d, requestType = %s}, Request processing time = %.3f\n";
     String TOTAL_SCHEDULING_TIME = "DRIVER: Total scheduling time = %.3f ms \n";
     String TOTAL_SIMULATION_TIME = "DRIVER: Total simulation time = %.3f ms \n";
     String PROCESSING_QUANTUM_TIME = "DRIVER: Processing time = %.3f ms exceeded quantum time!\n";
+    String CHECKPOINT_TAKEN = "DRIVER: Checkpoint taken after %d rounds {size = %d bytes, encoding time = %.3f ms}\n";
+    String CHECKPOINT_RESUMED = "DRIVER: Resumed from checkpoint at simulation time %.3f ms {load time = %.3f ms}\n";
     String INTERRUPT_HANDLED = "DRIVER: Interrupt handling for request %s\n";
+    String INTERRUPT_BATCH_HANDLED = "DRIVER: Interrupt handling for requests %s\n";
+    String INTERRUPT_STATISTICS = "DRIVER: Completions = %d, interrupts = %d, interrupts saved = %d {time saved = %.3f ms}\n";
+    String INTERRUPT_LATENCY = "DRIVER: Completion latency added by coalescing {mean = %.3f ms, max = %.3f ms}\n";
 
 
     String INITIAL_HEAD_POSITION = "SCHEDULER: Initial disk head position = %s track\n";
     String MOVE_DISK_HEAD = "SCHEDULER: Disk head moved to %s track {time = %.2f}\n";
     String FLOOK_QUEUES = "SCHEDULER: FLOOK scheduler queues = { \nactive = %s, \nwaiting = %s}\n\n";
+    String FAIR_QUEUE_STATISTICS = "SCHEDULER: Process %d {weight = %.1f, requests = %d, throughput = %.3f requests/s, " +
+            "disk share = %.1f%%, mean latency = %.3f ms, max latency = %.3f ms}\n";
+    String ANTICIPATION_STATISTICS = "SCHEDULER: Anticipations = %d, successful = %d, seek time saved = %.3f ms, " +
+            "idle time = %.3f ms, net saving = %.3f ms\n";
+    String ADAPTIVE_DECISION = "SCHEDULER: Sweep %d %s, policy = %s\n";
+    String ADAPTIVE_BENCHMARK_RESULT = "SCHEDULER: %s workload, %s {makespan = %.3f ms, mean latency = %.3f ms}\n";
+
+    String ARRAY_THROUGHPUT = "ARRAY: %s of %d disks serviced %d requests, throughput = %.3f requests/s\n";
+    String ARRAY_DISK_UTILIZATION = "ARRAY: Disk %d {requests = %d, busy time = %.3f ms, utilization = %.1f%%}\n";
+    String ARRAY_DISK_LOG = "ARRAY: Disk %d log\n";
+    String ARRAY_IMBALANCE = "ARRAY: Load imbalance (max / mean busy time) = %.3f\n";
+
+    String TRACK_ORDERING_BENCHMARK_RESULT = "ORDERING: Sweep of %d requests {comparator = %.3f ns/request, " +
+            "counting sort = %.3f ns/request, speedup = %.2fx, identical = %s}\n";
+
+    String BATCH_BENCHMARK_RESULT = "BATCH: Sweep of %d requests {per request = %.3f ns/request, batch = %.3f ns/request, " +
+            "speedup = %.2fx, identical = %s}\n";
+
+    String WORKLOAD_BENCHMARK_RESULT = "WORKLOAD: %s {requests = %d, time = %.3f ms, throughput = %.1f M requests/s, " +
+            "checksum = %d}\n";
+
+    String TELEMETRY_STATISTICS = "TELEMETRY: %d samples in %d windows (%d retained), sampling cost = %.1f ns/sample " +
+            "(%.3f ms total), ring buffers = %d bytes\n";
+    String TELEMETRY_EXPORTED = "TELEMETRY: %d windows written to %s\n";
+
+    String RESULT_LOG_WRITTEN = "RESULTS: %d requests written to %s in %d blocks {size = %d bytes, %.2f bytes/request}\n";
+    String RESULT_LOG_SUMMARY = "RESULTS: %d requests (%d reads, %d writes) scanned in %.3f ms, cache hit ratio = %.1f%%\n";
+    String RESULT_LOG_TIMES = "RESULTS: %s {mean = %.3f ms, max = %.3f ms}\n";
+    String RESULT_LOG_PROCESS = "RESULTS: Process %d {requests = %d, mean queue wait = %.3f ms, mean service time = %.3f ms}\n";
+
+    String SHARD_WORKERS_STARTED = "SHARD: %d workers started in %.3f ms\n";
+    String SHARD_WORKER_RESULT = "SHARD: Worker %d {requests = %d, schedule time = %.3f ms, hit ratio = %.1f%%, " +
+            "processing time = %.3f ms}\n";
+    String SHARD_MERGED_RESULT = "SHARD: %d workers, %s partitioning {requests = %d, makespan = %.3f ms, " +
+            "total disk time = %.3f ms, hit ratio = %.1f%%, wall time = %.3f ms, throughput = %.0f requests/s}\n";
 
     String ADDED_TO_CACHE = "CACHE: %s added to cache\n";
     String MOVED_WITHIN_CACHE = "CACHE: %s moved within cache\n";
+    String SEGMENT_TUNING_BASELINE = "CACHE: Tuning window %d {hit ratio = %.3f, baseline}, current segment split = %s\n";
+    String SEGMENT_TUNING_WINDOW_RESULT = "CACHE: Tuning window %d {hit ratio = %.3f, improved = %s}, current segment split = %s\n";
+    String SEGMENT_TUNING_CONVERGED = "CACHE: Segment tuning finished after %d windows, segment split = %s, best hit ratio = %.3f\n";
+    String CACHE_HIERARCHY_STATISTICS = "CACHE: %s private caches of %d tracks {private hit rate = %.1f%%, " +
+            "shared hit rate = %.1f%%, shared accesses avoided = %d (%.1f%%)}\n";
 
     String INVALID_SCHEDULER_ERROR = "Invalid disk scheduler\n";
+    String INVALID_SEGMENT_SIZE_ERROR = "Cache segments must hold at least one buffer\n";
+    String INVALID_WEIGHT_ERROR = "Process weight must be positive\n";
+    String INVALID_ARRAY_ERROR = "Invalid disk array layout\n";
+    String INVALID_CHECKPOINT_ERROR = "Invalid simulation checkpoint\n";
+    String CHECKPOINT_ARRAY_ERROR = "Disk arrays cannot be checkpointed\n";
+    String CHECKPOINT_SCHEDULER_ERROR = "Disk schedulers with internal queue state cannot be checkpointed\n";
+    String INVALID_WORKLOAD_ERROR = "Invalid workload\n";
+    String INVALID_RESULT_LOG_ERROR = "Invalid result log\n";
+    String INVALID_SHARD_FRAME_ERROR = "Unexpected shard protocol frame\n";
+    String INVALID_SHARD_INDEX_ERROR = "Shard worker reported an invalid or duplicate index\n";
+    String SHARD_WORKER_EXITED_ERROR = "Shard worker exited before connecting\n";
+    String INVALID_SERVICE_TIME_MODEL_ERROR = "Invalid service time model\n";
+
+    /**
+     * Suppresses all log output when the {@code denkoch.quiet} system property is {@code true},
+     * as in {@link ShardWorker} JVMs, whose output nobody reads.
+     */
+    boolean QUIET = Boolean.getBoolean("denkoch.quiet");
+
+    /**
+     * Collects the log output of the current thread instead of printing it while set.
+     */
+    ThreadLocal<StringBuilder> CAPTURE = new ThreadLocal<>();
 
     static void log(String message, Object... args) {
-        System.out.printf(message, args);
+        if (QUIET) {
+            return;
+        }
+        StringBuilder capture = CAPTURE.get();
+        if (capture != null) {
+            capture.append(String.format(message, args));
+        } else {
+            System.out.printf(message, args);
+        }
+    }
+
+    /**
+     * Writes output collected through {@link #CAPTURE} as it is.
+     */
+    static void append(CharSequence output) {
+        if (QUIET) {
+            return;
+        }
+        StringBuilder capture = CAPTURE.get();
+        if (capture != null) {
+            capture.append(output);
+        } else {
+            System.out.print(output);
+        }
     }
 
 }
@@ -1,7 +1,14 @@
 package denkoch;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 
 import static denkoch.Logger.*;
 import static denkoch.SystemParams.*;
@@ -22,8 +29,40 @@ public class Main {
      * @param lfuCache      the {@link LFUCache} to store frequently used data.
      */
     public static void runSimulation(List<Process> processes, DiskScheduler diskScheduler, LFUCache lfuCache) {
-        double totalSimulationTime = 0;
-        DiskInterruptHandler diskInterruptHandler = new DiskInterruptHandler();
+        runSimulation(processes, diskScheduler, lfuCache, 0, 0);
+    }
+
+    /**
+     * Runs the simulation of the disk scheduler and processes from the specified clocks.
+     * A checkpoint is taken every {@link SystemParams#CHECKPOINT_INTERVAL} rounds over the
+     * processes and once all requests have been issued, unless the scheduler
+     * {@link SimulationCheckpoint#isSupported cannot be checkpointed}.
+     * With {@link SystemParams#ONLINE_DISPATCH}, a {@link LOOKScheduler} services requests
+     * whenever the disk clock falls behind the driver clock, so requests issued later join the
+     * sweep that is already in progress. If the scheduler has a {@link TelemetrySampler}, it is
+     * also sampled after every cache access. When {@link SystemParams#INTERRUPT_BATCH_SIZE}
+     * coalesces completions, the {@link DiskInterruptHandler} follows the disk clock instead.
+     *
+     * @param processes           the list of {@link Process} instances.
+     * @param diskScheduler       the {@link DiskScheduler} used to handle disk requests.
+     * @param lfuCache            the {@link LFUCache} to store frequently used data.
+     * @param totalSimulationTime the simulation time to start from.
+     * @param driverTime          the driver clock to start from.
+     */
+    public static void runSimulation(List<Process> processes, DiskScheduler diskScheduler, LFUCache lfuCache,
+                                     double totalSimulationTime, double driverTime) {
+        int rounds = 0;
+        Future<?> checkpoint = null;
+        DiskInterruptHandler diskInterruptHandler = new DiskInterruptHandler(INTERRUPT_BATCH_SIZE, INTERRUPT_MAX_LATENCY);
+        boolean coalescing = INTERRUPT_BATCH_SIZE > 1;
+        if (coalescing) {
+            // Completions are coalesced on the disk clock, as the disk reports them
+            diskScheduler.setCompletionListener(diskInterruptHandler);
+        }
+        CacheHierarchy cacheHierarchy = new CacheHierarchy(lfuCache, PRIVATE_CACHE_SIZE, EXCLUSIVE_PRIVATE_CACHE
+                ? CacheHierarchy.InclusionPolicy.EXCLUSIVE
+                : CacheHierarchy.InclusionPolicy.INCLUSIVE);
+        TelemetrySampler telemetrySampler = diskScheduler.getTelemetrySampler();
 
         while (hasPendingProcesses(processes)) {
             for (Process process : processes) {
@@ -36,22 +75,33 @@ public class Main {
                     int track = request.getTrackNumber();
                     Request.RequestType operation = request.getRequest();
 
-                    lfuCache.getBuffer(track);
+                    request.setCacheHit(cacheHierarchy.access(request));
+                    if (ONLINE_DISPATCH && diskScheduler instanceof LOOKScheduler) {
+                        // The disk clock follows the driver clock, so the request queues now
+                        request.setQueueTime(driverTime);
+                    }
                     diskScheduler.addRequest(request);
+                    if (telemetrySampler != null) {
+                        telemetrySampler.sample(driverTime, diskScheduler.head, diskScheduler.getQueueDepth());
+                    }
 
                     double accessTime = AVG_ROTATION_DELAY + SECTOR_ACCESS_TIME;
+                    double interruptTime = 0;
                     switch (operation) {
-                        case READ -> {
-                            accessTime += READ_SYSTEM_TIME;
-                            diskInterruptHandler.handleInterrupt(request);
-                        }
-                        case WRITE -> {
-                            accessTime += WRITE_SYSTEM_TIME;
-                            diskInterruptHandler.handleInterrupt(request);
-                        }
+                        case READ -> accessTime += READ_SYSTEM_TIME;
+                        case WRITE -> accessTime += WRITE_SYSTEM_TIME;
+                    }
+                    if (!coalescing) {
+                        interruptTime = diskInterruptHandler.handleInterrupt(request, driverTime + accessTime);
+                    }
+                    driverTime += accessTime + interruptTime + PROCESSING_TIME;
+
+                    if (ONLINE_DISPATCH && diskScheduler instanceof LOOKScheduler lookScheduler) {
+                        // The disk works through its queue while the driver keeps issuing requests
+                        lookScheduler.dispatchUntil(driverTime);
                     }
 
-                    currentQuantum += accessTime + diskInterruptHandler.getInterruptHandlingTime();
+                    currentQuantum += accessTime + interruptTime;
 
                     currentQuantum += PROCESSING_TIME;
 
@@ -64,10 +114,25 @@ public class Main {
                     Logger.log(PROCESSING_QUANTUM_TIME, currentQuantum);
                 }
             }
+
+            rounds++;
+            if (CHECKPOINT_INTERVAL > 0 && SimulationCheckpoint.isSupported(diskScheduler) && (rounds % CHECKPOINT_INTERVAL == 0 || !hasPendingProcesses(processes))) {
+                checkpoint = takeCheckpoint(rounds, totalSimulationTime, driverTime, processes, diskScheduler, lfuCache);
+            }
         }
 
+        cacheHierarchy.logStatistics();
+
+        if (telemetrySampler != null && !ONLINE_DISPATCH) {
+            // The disk clock starts over once the driver has issued every request
+            telemetrySampler.setClockOffset(driverTime);
+        }
         diskScheduler.processRequests();
-        totalSimulationTime += diskScheduler.getScheduleTime();
+        double scheduleTime = diskScheduler.getScheduleTime();
+        totalSimulationTime += scheduleTime;
+        totalSimulationTime += diskInterruptHandler.flush(scheduleTime) + diskInterruptHandler.getListenedHandlingTime();
+        diskInterruptHandler.logStatistics();
+        awaitCheckpoint(checkpoint);
         Logger.log(TOTAL_SIMULATION_TIME, totalSimulationTime);
 
         GraphPlotter.plot(diskScheduler.getRequestTimes(), diskScheduler.getClass().getSimpleName());
@@ -79,22 +144,17 @@ public class Main {
         Logger.log(SELECT_SCHEDULER);
         String scheduler = scanner.nextLine();
 
-        DiskScheduler diskScheduler;
-        switch (scheduler) {
-            case "FIFO" -> diskScheduler = new FIFOScheduler(HEAD);
-            case "LOOK" -> diskScheduler = new LOOKScheduler(HEAD);
-            case "FLOOK" -> diskScheduler = new FLOOKScheduler(HEAD);
-            default -> {
-                throw new IllegalArgumentException(INVALID_SCHEDULER_ERROR);
-            }
-        }
+        DiskScheduler diskScheduler = createScheduler(scheduler);
+        boolean ordered = diskScheduler instanceof LOOKScheduler || diskScheduler instanceof FLOOKScheduler
+                || diskScheduler instanceof FairQueueScheduler || diskScheduler instanceof AnticipatoryScheduler
+                || diskScheduler instanceof AdaptiveScheduler;
 
-        if (diskScheduler instanceof LOOKScheduler || diskScheduler instanceof FLOOKScheduler) {
+        DiskScheduler.Order order = null;
+        if (ordered) {
             Logger.log(SELECT_ORDER);
-            String order = scanner.nextLine();
-            switch (order) {
-                case "ASC" -> diskScheduler.setOrder(DiskScheduler.Order.ASC);
-                case "DESC" -> diskScheduler.setOrder(DiskScheduler.Order.DESC);
+            switch (scanner.nextLine()) {
+                case "ASC" -> order = DiskScheduler.Order.ASC;
+                case "DESC" -> order = DiskScheduler.Order.DESC;
                 default -> {
                     throw new IllegalArgumentException(INVALID_SCHEDULER_ERROR);
                 }
@@ -109,36 +169,183 @@ public class Main {
             for (int i = 1; i <= NUMBER_OF_PROCESSES; i++) {
                 processes.add(new Process(i));
             }
-            generateRequests(processes);
+            Logger.log(SELECT_WORKLOAD);
+            generateRequests(processes, readOption(scanner, DEFAULT_WORKLOAD));
         } else if (requestsGenerated.equals(NO)) {
             createRequests(processes);
             System.out.println(processes + "\n");
         }
 
+        // The prompts added after the original three fall back to their defaults, so scripted runs keep working
+        Logger.log(SELECT_ARRAY_LAYOUT);
+        String layout = readOption(scanner, DEFAULT_ARRAY_LAYOUT);
+        switch (layout) {
+            case "SINGLE" -> {
+            }
+            case "RAID0", "RAID1", "RAID5" ->
+                    diskScheduler = new DiskArray(DiskArray.Layout.valueOf(layout), () -> createScheduler(scheduler));
+            default -> {
+                throw new IllegalArgumentException(INVALID_ARRAY_ERROR);
+            }
+        }
+        if (order != null) {
+            diskScheduler.setOrder(order);
+        }
+
+        Logger.log(SELECT_SERVICE_TIME_MODEL);
+        diskScheduler.setServiceTimeModel(createServiceTimeModel(readOption(scanner, DEFAULT_SERVICE_TIME_MODEL)));
+
 
         LFUCache lfuCache = new LFUCache();
+        if (SEGMENT_TUNING_WINDOW > 0) {
+            new SegmentTuner(lfuCache, SEGMENT_TUNING_WINDOW, SEGMENT_TUNING_MAX_WINDOWS);
+        }
+        TelemetrySampler telemetrySampler = null;
+        if (TELEMETRY_ENABLED) {
+            telemetrySampler = new TelemetrySampler(lfuCache, TELEMETRY_WINDOW, TELEMETRY_CAPACITY,
+                    TELEMETRY_TIMING_INTERVAL);
+            diskScheduler.setTelemetrySampler(telemetrySampler);
+        }
+        ResultSink resultSink = null;
+        if (RESULT_LOG_ENABLED) {
+            try {
+                resultSink = new ResultSink(Path.of(RESULT_LOG_FILE), RESULT_LOG_BLOCK_ROWS);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            diskScheduler.setResultSink(resultSink);
+        }
 
-        runSimulation(processes, diskScheduler, lfuCache);
+        if (requestsGenerated.equals(RESUME)) {
+            long start = System.nanoTime();
+            SimulationCheckpoint checkpoint;
+            try {
+                checkpoint = SimulationCheckpoint.read(Path.of(CHECKPOINT_FILE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            checkpoint.restore(diskScheduler, lfuCache);
+            processes = checkpoint.getProcesses();
+            Logger.log(CHECKPOINT_RESUMED, checkpoint.getSimulationTime(), (System.nanoTime() - start) / 1e6);
+
+            runSimulation(processes, diskScheduler, lfuCache, checkpoint.getSimulationTime(), checkpoint.getDriverTime());
+        } else {
+            runSimulation(processes, diskScheduler, lfuCache);
+        }
+        if (telemetrySampler != null) {
+            exportTelemetry(telemetrySampler, TELEMETRY_FILE);
+            if (diskScheduler instanceof DiskArray diskArray) {
+                List<TelemetrySampler> diskSamplers = diskArray.getDiskTelemetrySamplers();
+                for (int i = 0; i < diskSamplers.size(); i++) {
+                    exportTelemetry(diskSamplers.get(i), String.format(TELEMETRY_DISK_FILE, i));
+                }
+            }
+        }
+        if (resultSink != null) {
+            summarizeResults(resultSink);
+        }
         System.out.println(lfuCache);
 
     }
 
-    private static boolean hasPendingProcesses(List<Process> processes) {
-        return processes.stream().anyMatch(Process::hasPendingRequests);
+    /**
+     * Reads the answer to a prompt, falling back to a default on an empty line or at the end of the input.
+     */
+    private static String readOption(Scanner scanner, String defaultOption) {
+        String option = scanner.hasNextLine() ? scanner.nextLine().trim() : "";
+        return option.isEmpty() ? defaultOption : option;
     }
 
+    private static void exportTelemetry(TelemetrySampler telemetrySampler, String file) {
+        telemetrySampler.flush();
+        telemetrySampler.logStatistics();
+        try {
+            Logger.log(TELEMETRY_EXPORTED, telemetrySampler.writeCsv(Path.of(file)), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-    private static void generateRequests(List<Process> processes) {
-        Random rand = new Random();
-        Request.RequestType[] types = Request.RequestType.values();
+    private static void summarizeResults(ResultSink resultSink) {
+        try {
+            resultSink.close();
+            ResultLogReader.summarize(Path.of(RESULT_LOG_FILE)).log();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        for (int i = 0; i < NUMBER_OF_REQUESTS; ++i) {
-            int processId = i % processes.size();
-            int track = rand.nextInt(NUMBER_OF_TRACKS);
+    static ServiceTimeModel createServiceTimeModel(String serviceTimeModel) {
+        return switch (serviceTimeModel) {
+            case "FIXED" -> new FixedServiceTimeModel();
+            case "MECHANICAL" -> new MechanicalServiceTimeModel();
+            case "ZONED" -> new MechanicalServiceTimeModel(true);
+            default -> throw new IllegalArgumentException(INVALID_SERVICE_TIME_MODEL_ERROR);
+        };
+    }
 
-            Request.RequestType operation = types[rand.nextInt(types.length)];
-            processes.get(processId).addRequest(new Request(track, operation));
+    static DiskScheduler createScheduler(String scheduler) {
+        return switch (scheduler) {
+            case "FIFO" -> new FIFOScheduler(HEAD);
+            case "LOOK" -> new LOOKScheduler(HEAD);
+            case "FLOOK" -> new FLOOKScheduler(HEAD);
+            case "SPTF" -> new SPTFScheduler(HEAD);
+            case "FQ" -> new FairQueueScheduler(HEAD);
+            case "AS" -> new AnticipatoryScheduler(HEAD);
+            case "ADAPTIVE" -> new AdaptiveScheduler(HEAD);
+            default -> throw new IllegalArgumentException(INVALID_SCHEDULER_ERROR);
+        };
+    }
+
+    private static Future<?> takeCheckpoint(int rounds, double totalSimulationTime, double driverTime,
+                                            List<Process> processes, DiskScheduler diskScheduler, LFUCache lfuCache) {
+        long start = System.nanoTime();
+        ByteBuffer snapshot = SimulationCheckpoint.encode(totalSimulationTime, driverTime, processes, diskScheduler, lfuCache);
+        Logger.log(CHECKPOINT_TAKEN, rounds, snapshot.remaining(), (System.nanoTime() - start) / 1e6);
+        return SimulationCheckpoint.write(Path.of(CHECKPOINT_FILE), snapshot);
+    }
+
+    private static void awaitCheckpoint(Future<?> checkpoint) {
+        if (checkpoint == null) {
+            return;
         }
+        try {
+            checkpoint.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean hasPendingProcesses(List<Process> processes) {
+        return processes.stream().anyMatch(Process::hasPendingRequests);
+    }
+
+
+    private static void generateRequests(List<Process> processes, String workload) {
+        WorkloadGenerator generator = new WorkloadGenerator(WORKLOAD_SEED, createWorkload(workload));
+        generator.generate(processes, NUMBER_OF_REQUESTS);
+    }
+
+    static IntFunction<WorkloadGenerator.ProcessWorkload> createWorkload(String workload) {
+        return switch (workload) {
+            case "UNIFORM" -> processId -> new WorkloadGenerator.ProcessWorkload(
+                    new UniformTrackDistribution(), new PoissonArrivals(ARRIVAL_RATE), WRITE_RATIO);
+            case "ZIPF" -> processId -> new WorkloadGenerator.ProcessWorkload(
+                    new ZipfTrackDistribution(ZIPF_EXPONENT, WORKLOAD_SEED), new PoissonArrivals(ARRIVAL_RATE), WRITE_RATIO);
+            case "HOTSPOT" -> processId -> new WorkloadGenerator.ProcessWorkload(
+                    new HotspotTrackDistribution(processId * NUMBER_OF_TRACKS / NUMBER_OF_PROCESSES,
+                            HOTSPOT_TRACK_FRACTION, HOTSPOT_ACCESS_FRACTION),
+                    new PoissonArrivals(ARRIVAL_RATE), WRITE_RATIO);
+            case "SEQUENTIAL" -> processId -> new WorkloadGenerator.ProcessWorkload(
+                    new SequentialRunTrackDistribution(MEAN_SEQUENTIAL_RUN),
+                    new BurstyArrivals(MEAN_BURST_SIZE, BURST_ARRIVAL_RATE, MEAN_BURST_IDLE_TIME), WRITE_RATIO);
+            case "MIXED" -> processId -> processId % 2 == 0
+                    ? createWorkload("ZIPF").apply(processId)
+                    : createWorkload("SEQUENTIAL").apply(processId);
+            default -> throw new IllegalArgumentException(INVALID_WORKLOAD_ERROR);
+        };
     }
 
     private static void createRequests(List<Process> processes) {
@@ -0,0 +1,85 @@
+package denkoch;
+
+import static denkoch.SystemParams.*;
+
+/**
+ * Service time model based on the mechanics of a real drive.
+ * <p>
+ * Short seeks are dominated by arm acceleration and grow with the square root of the
+ * distance, long seeks coast at a constant speed once the arm is up to speed, and every
+ * seek ends with a settle time. The platter keeps rotating over simulated time, so the
+ * rotational delay depends on where the target sector is when the head arrives.
+ * <p>
+ * When zoning is enabled, tracks are grouped into {@link SystemParams#NUMBER_OF_ZONES}
+ * zones and the outer zones hold more sectors per track, which makes their sectors
+ * faster to transfer.
+ */
+public class MechanicalServiceTimeModel implements ServiceTimeModel {
+
+    private static final double ROTATION_PERIOD = (double) (60 * 1000) / RPM;
+
+    private final boolean zoned;
+
+    public MechanicalServiceTimeModel() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new {@code MechanicalServiceTimeModel}.
+     *
+     * @param zoned {@code true} to model multi-zone tracks; {@code false} for a constant
+     *              number of sectors per track.
+     */
+    public MechanicalServiceTimeModel(boolean zoned) {
+        this.zoned = zoned;
+    }
+
+    @Override
+    public double seekTime(int fromTrack, int toTrack) {
+        int distance = Math.abs(toTrack - fromTrack);
+        if (distance == 0) {
+            return 0;
+        }
+        if (distance < SEEK_COAST_DISTANCE) {
+            return SEEK_SETTLE_TIME + SEEK_ACCELERATION_TIME * Math.sqrt(distance);
+        }
+        return SEEK_SETTLE_TIME + SEEK_ACCELERATION_TIME * Math.sqrt(SEEK_COAST_DISTANCE)
+                + (distance - SEEK_COAST_DISTANCE) * SEEK_COAST_TIME_PER_TRACK;
+    }
+
+    /**
+     * Calculates the rotational delay from the angular position of the platter.
+     * Sector numbers are angular positions in units of {@link SystemParams#SECTORS_PER_TRACK},
+     * so the same sector number lies at the same angle on every zone.
+     */
+    @Override
+    public double rotationalDelay(int track, int sector, double time) {
+        double headAngle = (time % ROTATION_PERIOD) / ROTATION_PERIOD;
+        double sectorAngle = (double) (sector % SECTORS_PER_TRACK) / SECTORS_PER_TRACK;
+
+        double remaining = sectorAngle - headAngle;
+        if (remaining < 0) {
+            remaining += 1;
+        }
+        return remaining * ROTATION_PERIOD;
+    }
+
+    @Override
+    public double transferTime(int track) {
+        return ROTATION_PERIOD / getSectorsPerTrack(track);
+    }
+
+    /**
+     * Gets the number of sectors on the specified track.
+     *
+     * @param track the track number.
+     * @return the number of sectors on the track.
+     */
+    public int getSectorsPerTrack(int track) {
+        if (!zoned) {
+            return SECTORS_PER_TRACK;
+        }
+        int zone = Math.min(track * NUMBER_OF_ZONES / (NUMBER_OF_TRACKS + 1), NUMBER_OF_ZONES - 1);
+        return (int) Math.round(SECTORS_PER_TRACK * (1 - zone * ZONE_SECTOR_REDUCTION));
+    }
+}
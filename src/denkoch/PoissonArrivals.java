@@ -0,0 +1,25 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Issues requests as a Poisson process with exponentially distributed inter-arrival times.
+ */
+public class PoissonArrivals implements ArrivalProcess {
+
+    private final double meanInterArrivalTime;
+
+    /**
+     * Constructs a new {@code PoissonArrivals}.
+     *
+     * @param rate the mean number of requests per millisecond.
+     */
+    public PoissonArrivals(double rate) {
+        this.meanInterArrivalTime = 1 / rate;
+    }
+
+    @Override
+    public double nextInterArrivalTime(SplittableRandom random) {
+        return -Math.log(1 - random.nextDouble()) * meanInterArrivalTime;
+    }
+}
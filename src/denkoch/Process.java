@@ -29,6 +29,7 @@ public class Process {
     public Process(int processId, LinkedList<Request> requests) {
         this.processId = processId;
         this.requests = requests;
+        requests.forEach(request -> request.setProcessId(processId));
     }
 
     public int getProcessId() {
@@ -40,6 +41,7 @@ public class Process {
     }
 
     public void addRequest(Request request) {
+        request.setProcessId(processId);
         requests.add(request);
     }
 
@@ -0,0 +1,159 @@
+package denkoch;
+
+/**
+ * Small private cache owned by a single process.
+ * <p>
+ * The cache is confined to the thread of its process, so it needs no locks. It holds a
+ * handful of tracks in plain arrays and evicts the least recently used one. Every entry
+ * remembers the version of its track when it was cached; a lookup with a newer version
+ * means another process has written the track, and the stale entry is dropped. Entries also
+ * carry the LFU frequency of their track, so a track moved out of the shared cache keeps its
+ * frequency when it is demoted back.
+ */
+public class ProcessCache {
+
+    private final int[] tracks;
+    private final int[] versions;
+    private final int[] frequencies;
+    private final long[] lastAccess;
+    private int size;
+    private int evictedFrequency;
+    private long clock;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a new {@code ProcessCache}.
+     *
+     * @param capacity the number of tracks the cache can hold.
+     */
+    public ProcessCache(int capacity) {
+        this.tracks = new int[capacity];
+        this.versions = new int[capacity];
+        this.frequencies = new int[capacity];
+        this.lastAccess = new long[capacity];
+    }
+
+    /**
+     * Looks up a track in the cache.
+     *
+     * @param track   the track to look up.
+     * @param version the current version of the track.
+     * @return {@code true} if the cache holds the current version of the track; {@code false} otherwise.
+     */
+    public boolean lookup(int track, int version) {
+        int slot = find(track);
+        if (slot >= 0 && versions[slot] == version) {
+            lastAccess[slot] = ++clock;
+            hits++;
+            return true;
+        }
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+        misses++;
+        return false;
+    }
+
+    /**
+     * Caches a track, replacing the least recently used one if the cache is full.
+     *
+     * @param track   the track to cache.
+     * @param version the current version of the track.
+     * @return the evicted track, or {@code -1} if nothing was evicted. A cache without
+     * capacity evicts the inserted track itself.
+     */
+    public int insert(int track, int version) {
+        return insert(track, version, 1);
+    }
+
+    /**
+     * Caches a track together with its LFU frequency, replacing the least recently used one
+     * if the cache is full. The frequency of the evicted track is available from
+     * {@link #getEvictedFrequency()}.
+     *
+     * @param track     the track to cache.
+     * @param version   the current version of the track.
+     * @param frequency the LFU frequency of the track.
+     * @return the evicted track, or {@code -1} if nothing was evicted. A cache without
+     * capacity evicts the inserted track itself.
+     */
+    public int insert(int track, int version, int frequency) {
+        if (tracks.length == 0) {
+            evictedFrequency = frequency;
+            return track;
+        }
+
+        int slot = find(track);
+        int evicted = -1;
+        if (slot < 0) {
+            if (size < tracks.length) {
+                slot = size++;
+            } else {
+                slot = 0;
+                for (int i = 1; i < size; i++) {
+                    if (lastAccess[i] < lastAccess[slot]) {
+                        slot = i;
+                    }
+                }
+                evicted = tracks[slot];
+                evictedFrequency = frequencies[slot];
+            }
+        } else {
+            frequency = Math.max(frequency, frequencies[slot]);
+        }
+
+        tracks[slot] = track;
+        versions[slot] = version;
+        frequencies[slot] = frequency;
+        lastAccess[slot] = ++clock;
+        return evicted;
+    }
+
+    /**
+     * Gets the LFU frequency of the track evicted by the last {@link #insert(int, int, int)}.
+     *
+     * @return the frequency of the evicted track.
+     */
+    public int getEvictedFrequency() {
+        return evictedFrequency;
+    }
+
+    /**
+     * Removes a track from the cache.
+     *
+     * @param track the track to remove.
+     */
+    public void remove(int track) {
+        int slot = find(track);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private int find(int track) {
+        for (int i = 0; i < size; i++) {
+            if (tracks[i] == track) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        size--;
+        tracks[slot] = tracks[size];
+        versions[slot] = versions[size];
+        frequencies[slot] = frequencies[size];
+        lastAccess[slot] = lastAccess[size];
+    }
+}
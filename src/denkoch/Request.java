@@ -14,16 +14,47 @@ public class Request {
 
     private final Integer trackNumber;
     private final RequestType request;
+    private final Integer sectorNumber;
+    private final double arrivalTime;
+    private int processId;
+    private boolean cacheHit;
+    private double queueTime = -1;
 
     /**
      * Constructs a new {@code Request} with the specified track number and request type.
+     * The request targets the first sector of the track.
      *
      * @param trackNumber the track number for the request.
      * @param request     the type of the request (READ or WRITE).
      */
     public Request(Integer trackNumber, RequestType request) {
+        this(trackNumber, request, 0);
+    }
+
+    /**
+     * Constructs a new {@code Request} with the specified track number, request type and sector number.
+     *
+     * @param trackNumber  the track number for the request.
+     * @param request      the type of the request (READ or WRITE).
+     * @param sectorNumber the sector number within the track.
+     */
+    public Request(Integer trackNumber, RequestType request, Integer sectorNumber) {
+        this(trackNumber, request, sectorNumber, 0);
+    }
+
+    /**
+     * Constructs a new {@code Request} that arrives at the specified simulated time.
+     *
+     * @param trackNumber  the track number for the request.
+     * @param request      the type of the request (READ or WRITE).
+     * @param sectorNumber the sector number within the track.
+     * @param arrivalTime  the simulated time in milliseconds at which the request is issued.
+     */
+    public Request(Integer trackNumber, RequestType request, Integer sectorNumber, double arrivalTime) {
         this.trackNumber = trackNumber;
         this.request = request;
+        this.sectorNumber = sectorNumber;
+        this.arrivalTime = arrivalTime;
     }
 
     public RequestType getRequest() {
@@ -39,6 +70,55 @@ public class Request {
         return trackNumber;
     }
 
+    public Integer getSectorNumber() {
+        return sectorNumber;
+    }
+
+    public double getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Assigns the request to the process that issues it.
+     *
+     * @param processId the ID of the issuing process.
+     */
+    public void setProcessId(int processId) {
+        this.processId = processId;
+    }
+
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * Records whether the track of the request was found in the cache when it was issued.
+     *
+     * @param cacheHit {@code true} if the cache access was a hit.
+     */
+    public void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    public double getQueueTime() {
+        return queueTime;
+    }
+
+    /**
+     * Records when the request joined the queue of the disk, on the clock of the scheduler.
+     * Schedulers that admit requests by arrival time set it on admission; requests without it
+     * are taken to have been queued when the scheduler started processing.
+     *
+     * @param queueTime the simulated time in milliseconds, or {@code -1} if unknown.
+     */
+    public void setQueueTime(double queueTime) {
+        this.queueTime = queueTime;
+    }
+
     @Override
     public String toString() {
         return "\n\tRequest {" +
@@ -0,0 +1,45 @@
+package denkoch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size binary encoding of a {@link Request}, shared by checkpoints and shard transport.
+ * <p>
+ * A request is encoded as its track number, request type ordinal, sector number, arrival
+ * time and process ID, in that order.
+ */
+public final class RequestCodec {
+
+    public static final int BYTES = Integer.BYTES + Byte.BYTES + Integer.BYTES + Double.BYTES + Integer.BYTES;
+
+    private static final Request.RequestType[] TYPES = Request.RequestType.values();
+
+    private RequestCodec() {
+    }
+
+    /**
+     * Writes a request at the current position of the buffer.
+     *
+     * @param buffer  the buffer to write to.
+     * @param request the {@link Request} to encode.
+     */
+    public static void write(ByteBuffer buffer, Request request) {
+        buffer.putInt(request.getTrackNumber())
+                .put((byte) request.getRequest().ordinal())
+                .putInt(request.getSectorNumber())
+                .putDouble(request.getArrivalTime())
+                .putInt(request.getProcessId());
+    }
+
+    /**
+     * Reads a request from the current position of the buffer.
+     *
+     * @param buffer the buffer to read from.
+     * @return the decoded {@link Request}.
+     */
+    public static Request read(ByteBuffer buffer) {
+        Request request = new Request(buffer.getInt(), TYPES[buffer.get()], buffer.getInt(), buffer.getDouble());
+        request.setProcessId(buffer.getInt());
+        return request;
+    }
+}
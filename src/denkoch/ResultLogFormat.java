@@ -0,0 +1,60 @@
+package denkoch;
+
+/**
+ * Layout of the columnar result log written by {@link ResultSink} and read by {@link ResultLogReader}.
+ * <p>
+ * The file starts with a magic number and a version, followed by blocks of up to
+ * {@link SystemParams#RESULT_LOG_BLOCK_ROWS} rows. A block header holds the number of rows,
+ * the raw payload length and the compressed payload length; the payload is deflated and
+ * stores the columns one after another:
+ * <ul>
+ *     <li>process IDs and track numbers as zigzag varints of the delta to the previous row,</li>
+ *     <li>one flag byte per row for the request type and the cache hit,</li>
+ *     <li>queue wait, seek time and service time as varints of whole microseconds.</li>
+ * </ul>
+ */
+final class ResultLogFormat {
+
+    static final int MAGIC = 0x524C4F47;
+    static final short VERSION = 1;
+    static final int FILE_HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int BLOCK_HEADER_BYTES = Integer.BYTES * 3;
+
+    static final byte WRITE_FLAG = 1;
+    static final byte CACHE_HIT_FLAG = 2;
+
+    static final double TIME_UNITS_PER_MS = 1000.0;
+
+    private static final int MAX_INT_VARINT_BYTES = 5;
+    private static final int MAX_LONG_VARINT_BYTES = 10;
+    static final int MAX_ROW_BYTES = MAX_INT_VARINT_BYTES * 2 + Byte.BYTES + MAX_LONG_VARINT_BYTES * 3;
+
+    private ResultLogFormat() {
+    }
+
+    /**
+     * Writes an unsigned varint, seven bits per byte with the high bit marking continuation.
+     *
+     * @return the position after the varint.
+     */
+    static int putVarint(byte[] bytes, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long toTimeUnits(double time) {
+        return Math.max(0, Math.round(time * TIME_UNITS_PER_MS));
+    }
+}
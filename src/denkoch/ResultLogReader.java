@@ -0,0 +1,328 @@
+package denkoch;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static denkoch.Logger.*;
+import static denkoch.ResultLogFormat.*;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads a result log written by {@link ResultSink} block by block.
+ * <p>
+ * Each call to {@link #nextBlock()} inflates one block and decodes its columns into arrays
+ * that are reused for every block, so scanning a log allocates nothing per row. Times are
+ * returned in microseconds; divide by {@link ResultLogFormat#TIME_UNITS_PER_MS} for milliseconds.
+ * <p>
+ * Usage: {@code java denkoch.ResultLogReader [result log]} prints a {@link Summary} of the log.
+ */
+public class ResultLogReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer input;
+    private final ByteBuffer blockHeader;
+    private final Inflater inflater;
+    private byte[] compressed;
+    private byte[] raw;
+
+    private int rows;
+    private int[] processIds;
+    private int[] tracks;
+    private byte[] flags;
+    private long[] queueWaits;
+    private long[] seekTimes;
+    private long[] serviceTimes;
+
+    /**
+     * Opens a result log and checks its header.
+     *
+     * @param file the file to read.
+     * @throws IOException if the file cannot be read or is not a result log.
+     */
+    public ResultLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, READ);
+        this.input = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        this.blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        this.inflater = new Inflater();
+        this.compressed = new byte[0];
+        this.raw = new byte[0];
+        this.processIds = new int[0];
+        this.tracks = new int[0];
+        this.flags = new byte[0];
+        this.queueWaits = new long[0];
+        this.seekTimes = new long[0];
+        this.serviceTimes = new long[0];
+
+        try {
+            readFully(input);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        if (input.getInt(0) != MAGIC || input.getShort(Integer.BYTES) != VERSION) {
+            close();
+            throw new IOException(INVALID_RESULT_LOG_ERROR);
+        }
+    }
+
+    /**
+     * Reads and decodes the next block.
+     *
+     * @return {@code true} if a block was read; {@code false} at the end of the log.
+     * @throws IOException if the file cannot be read or a block is corrupted.
+     */
+    public boolean nextBlock() throws IOException {
+        blockHeader.clear();
+        if (channel.read(blockHeader) < 0) {
+            return false;
+        }
+        readFully(blockHeader);
+        rows = blockHeader.getInt(0);
+        int rawLength = blockHeader.getInt(Integer.BYTES);
+        int compressedLength = blockHeader.getInt(Integer.BYTES * 2);
+
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        if (processIds.length < rows) {
+            processIds = new int[rows];
+            tracks = new int[rows];
+            flags = new byte[rows];
+            queueWaits = new long[rows];
+            seekTimes = new long[rows];
+            serviceTimes = new long[rows];
+        }
+
+        readFully(ByteBuffer.wrap(compressed, 0, compressedLength));
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                throw new IOException(INVALID_RESULT_LOG_ERROR);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(INVALID_RESULT_LOG_ERROR, e);
+        }
+
+        decode();
+        return true;
+    }
+
+    private void decode() {
+        byte[] bytes = raw;
+        int position = 0;
+
+        int previous = 0;
+        for (int i = 0; i < rows; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += unzigzag(value);
+            processIds[i] = previous;
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += unzigzag(value);
+            tracks[i] = previous;
+        }
+        System.arraycopy(bytes, position, flags, 0, rows);
+        position += rows;
+
+        for (long[] column : new long[][]{queueWaits, seekTimes, serviceTimes}) {
+            for (int i = 0; i < rows; i++) {
+                long value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    value |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                column[i] = value;
+            }
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getProcessId(int row) {
+        return processIds[row];
+    }
+
+    public int getTrack(int row) {
+        return tracks[row];
+    }
+
+    public boolean isWrite(int row) {
+        return (flags[row] & WRITE_FLAG) != 0;
+    }
+
+    public boolean isCacheHit(int row) {
+        return (flags[row] & CACHE_HIT_FLAG) != 0;
+    }
+
+    public long getQueueWait(int row) {
+        return queueWaits[row];
+    }
+
+    public long getSeekTime(int row) {
+        return seekTimes[row];
+    }
+
+    public long getServiceTime(int row) {
+        return serviceTimes[row];
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException(INVALID_RESULT_LOG_ERROR);
+            }
+        }
+    }
+
+    /**
+     * Scans a whole result log and aggregates it.
+     *
+     * @param file the result log to read.
+     * @return the {@link Summary} of the log.
+     * @throws IOException if the file cannot be read.
+     */
+    public static Summary summarize(Path file) throws IOException {
+        long start = System.nanoTime();
+        Summary summary = new Summary();
+        try (ResultLogReader reader = new ResultLogReader(file)) {
+            while (reader.nextBlock()) {
+                summary.add(reader);
+            }
+        }
+        summary.scanTime = (System.nanoTime() - start) / 1e6;
+        return summary;
+    }
+
+    /**
+     * Request counts, cache hits and time statistics of a result log, overall and per process.
+     */
+    public static class Summary {
+        private long requests;
+        private long writes;
+        private long cacheHits;
+        private final long[] totalTimes = new long[3];
+        private final long[] maxTimes = new long[3];
+        private long[] processRequests = new long[0];
+        private long[] processQueueWaits = new long[0];
+        private long[] processServiceTimes = new long[0];
+        private double scanTime;
+
+        private void add(ResultLogReader reader) {
+            int rows = reader.rows;
+            for (int i = 0; i < rows; i++) {
+                int processId = reader.processIds[i];
+                if (processId >= processRequests.length) {
+                    int length = Math.max(processId + 1, processRequests.length * 2);
+                    processRequests = Arrays.copyOf(processRequests, length);
+                    processQueueWaits = Arrays.copyOf(processQueueWaits, length);
+                    processServiceTimes = Arrays.copyOf(processServiceTimes, length);
+                }
+                processRequests[processId]++;
+                processQueueWaits[processId] += reader.queueWaits[i];
+                processServiceTimes[processId] += reader.serviceTimes[i];
+
+                byte flag = reader.flags[i];
+                writes += flag & WRITE_FLAG;
+                cacheHits += (flag & CACHE_HIT_FLAG) >> 1;
+            }
+
+            long[][] columns = {reader.queueWaits, reader.seekTimes, reader.serviceTimes};
+            for (int column = 0; column < columns.length; column++) {
+                long total = 0;
+                long max = maxTimes[column];
+                for (int i = 0; i < rows; i++) {
+                    total += columns[column][i];
+                    max = Math.max(max, columns[column][i]);
+                }
+                totalTimes[column] += total;
+                maxTimes[column] = max;
+            }
+            requests += rows;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public double getCacheHitRatio() {
+            return requests == 0 ? 0 : (double) cacheHits / requests;
+        }
+
+        /**
+         * Gets the mean time from joining the queue to completion, the queue wait plus the service time.
+         *
+         * @return the mean latency in milliseconds.
+         */
+        public double getMeanLatency() {
+            return requests == 0 ? 0 : (totalTimes[0] + totalTimes[2]) / TIME_UNITS_PER_MS / requests;
+        }
+
+        /**
+         * Logs the overall statistics followed by the statistics of every process.
+         */
+        public void log() {
+            Logger.log(RESULT_LOG_SUMMARY, requests, requests - writes, writes, scanTime, getCacheHitRatio() * 100);
+            String[] names = {"Queue wait", "Seek time", "Service time"};
+            for (int column = 0; column < names.length; column++) {
+                double mean = requests == 0 ? 0 : totalTimes[column] / TIME_UNITS_PER_MS / requests;
+                Logger.log(RESULT_LOG_TIMES, names[column], mean, maxTimes[column] / TIME_UNITS_PER_MS);
+            }
+            for (int processId = 0; processId < processRequests.length; processId++) {
+                long count = processRequests[processId];
+                if (count > 0) {
+                    Logger.log(RESULT_LOG_PROCESS, processId, count,
+                            processQueueWaits[processId] / TIME_UNITS_PER_MS / count,
+                            processServiceTimes[processId] / TIME_UNITS_PER_MS / count);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Path file = Path.of(args.length > 0 ? args[0] : SystemParams.RESULT_LOG_FILE);
+        try {
+            summarize(file).log();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package denkoch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static denkoch.Logger.RESULT_LOG_WRITTEN;
+import static denkoch.ResultLogFormat.*;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Streams every serviced request into a compressed columnar result log.
+ * <p>
+ * Rows are collected column by column in preallocated arrays. When a block is full, each
+ * column is delta and varint encoded, the block is deflated and appended to a direct
+ * buffer that is written to the {@link FileChannel} whenever it fills up. The layout is
+ * described in {@link ResultLogFormat}; {@link ResultLogReader} reads it back.
+ * <p>
+ * Recording is not synchronized. The member disks of a {@link DiskArray} record into
+ * {@linkplain #buffer(int) buffers} of their own while they run on their own threads, and the
+ * array moves the buffered rows into its sink once all disks have finished.
+ */
+public class ResultSink implements Closeable {
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer output;
+    private final Deflater deflater;
+    private int blockRows;
+
+    private int[] processIds;
+    private int[] tracks;
+    private byte[] flags;
+    private long[] queueWaits;
+    private long[] seekTimes;
+    private long[] serviceTimes;
+    private final byte[] raw;
+    private byte[] compressed;
+    private int rows;
+
+    private long totalRows;
+    private int blocks;
+
+    /**
+     * Creates the result log, replacing any existing file.
+     *
+     * @param file      the file to write.
+     * @param blockRows the number of rows per compressed block.
+     * @throws IOException if the file cannot be created.
+     */
+    public ResultSink(Path file, int blockRows) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        this.output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.blockRows = blockRows;
+        allocateColumns(blockRows);
+        this.raw = new byte[blockRows * MAX_ROW_BYTES];
+        this.compressed = new byte[raw.length];
+
+        output.putInt(MAGIC).putShort(VERSION);
+    }
+
+    private ResultSink(int capacity) {
+        this.file = null;
+        this.channel = null;
+        this.output = null;
+        this.deflater = null;
+        this.blockRows = Math.max(1, capacity);
+        allocateColumns(blockRows);
+        this.raw = null;
+    }
+
+    /**
+     * Creates a sink that keeps its rows in memory until they are moved into another sink by
+     * {@link #drainTo(ResultSink)}. The buffer grows when it is full.
+     *
+     * @param capacity the number of rows to allocate for.
+     * @return the new buffer.
+     */
+    static ResultSink buffer(int capacity) {
+        return new ResultSink(capacity);
+    }
+
+    private void allocateColumns(int capacity) {
+        processIds = new int[capacity];
+        tracks = new int[capacity];
+        flags = new byte[capacity];
+        queueWaits = new long[capacity];
+        seekTimes = new long[capacity];
+        serviceTimes = new long[capacity];
+    }
+
+    /**
+     * Records a serviced request.
+     *
+     * @param request     the serviced {@link Request}.
+     * @param queueWait   the time the request waited between joining the queue and the start of its service.
+     * @param seekTime    the seek part of the service time.
+     * @param serviceTime the total service time.
+     * @throws UncheckedIOException if a full block cannot be written.
+     */
+    public void record(Request request, double queueWait, double seekTime, double serviceTime) {
+        add(request.getProcessId(), request.getTrackNumber(),
+                (byte) ((request.getRequest() == Request.RequestType.WRITE ? WRITE_FLAG : 0)
+                        | (request.isCacheHit() ? CACHE_HIT_FLAG : 0)),
+                toTimeUnits(queueWait), toTimeUnits(seekTime), toTimeUnits(serviceTime));
+    }
+
+    /**
+     * Moves the rows of a {@linkplain #buffer(int) buffer} into this sink, in the order they
+     * were recorded, and empties the buffer.
+     *
+     * @param sink the sink receiving the rows.
+     * @throws UncheckedIOException if a full block cannot be written.
+     */
+    void drainTo(ResultSink sink) {
+        for (int i = 0; i < rows; i++) {
+            sink.add(processIds[i], tracks[i], flags[i], queueWaits[i], seekTimes[i], serviceTimes[i]);
+        }
+        rows = 0;
+    }
+
+    private void add(int processId, int track, byte flag, long queueWait, long seekTime, long serviceTime) {
+        if (rows == blockRows) {
+            // Only a buffer fills up; a file sink writes a block as soon as it is full
+            grow();
+        }
+        processIds[rows] = processId;
+        tracks[rows] = track;
+        flags[rows] = flag;
+        queueWaits[rows] = queueWait;
+        seekTimes[rows] = seekTime;
+        serviceTimes[rows] = serviceTime;
+
+        if (++rows == blockRows && channel != null) {
+            try {
+                writeBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void grow() {
+        blockRows *= 2;
+        processIds = Arrays.copyOf(processIds, blockRows);
+        tracks = Arrays.copyOf(tracks, blockRows);
+        flags = Arrays.copyOf(flags, blockRows);
+        queueWaits = Arrays.copyOf(queueWaits, blockRows);
+        seekTimes = Arrays.copyOf(seekTimes, blockRows);
+        serviceTimes = Arrays.copyOf(serviceTimes, blockRows);
+    }
+
+    /**
+     * Writes the last block, logs the size of the log and closes the file. Does nothing for a buffer.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            // A buffer has no file; its rows are moved out by drainTo
+            return;
+        }
+        try {
+            writeBlock();
+            output.flip();
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+            long size = channel.size();
+            Logger.log(RESULT_LOG_WRITTEN, totalRows, file, blocks, size,
+                    totalRows == 0 ? 0 : (double) size / totalRows);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+
+        int position = 0;
+        int previousProcessId = 0;
+        for (int i = 0; i < rows; i++) {
+            position = putVarint(raw, position, zigzag(processIds[i] - previousProcessId) & 0xFFFFFFFFL);
+            previousProcessId = processIds[i];
+        }
+        int previousTrack = 0;
+        for (int i = 0; i < rows; i++) {
+            position = putVarint(raw, position, zigzag(tracks[i] - previousTrack) & 0xFFFFFFFFL);
+            previousTrack = tracks[i];
+        }
+        System.arraycopy(flags, 0, raw, position, rows);
+        position += rows;
+        for (long[] column : new long[][]{queueWaits, seekTimes, serviceTimes}) {
+            for (int i = 0; i < rows; i++) {
+                position = putVarint(raw, position, column[i]);
+            }
+        }
+
+        deflater.reset();
+        deflater.setInput(raw, 0, position);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                byte[] larger = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, larger, 0, compressedLength);
+                compressed = larger;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        put(ByteBuffer.allocate(BLOCK_HEADER_BYTES).putInt(rows).putInt(position).putInt(compressedLength).flip());
+        put(ByteBuffer.wrap(compressed, 0, compressedLength));
+
+        totalRows += rows;
+        blocks++;
+        rows = 0;
+    }
+
+    /**
+     * Appends bytes to the output buffer, writing it to the channel whenever it fills up.
+     */
+    private void put(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            if (!output.hasRemaining()) {
+                output.flip();
+                while (output.hasRemaining()) {
+                    channel.write(output);
+                }
+                output.clear();
+            }
+            int length = Math.min(bytes.remaining(), output.remaining());
+            output.put(output.position(), bytes, bytes.position(), length);
+            output.position(output.position() + length);
+            bytes.position(bytes.position() + length);
+        }
+    }
+}
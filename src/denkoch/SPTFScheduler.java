@@ -0,0 +1,69 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements the Shortest Positioning Time First (SPTF) disk scheduling algorithm.
+ * <p>
+ * Each step services the pending request that the head can reach soonest according to
+ * the scheduler's {@link ServiceTimeModel}, counting both the seek and the rotational
+ * delay. With a rotational model this picks nearby sectors that are about to pass under
+ * the head, not just the nearest track. Requests with equal positioning times are
+ * serviced first come, first served.
+ */
+public class SPTFScheduler extends DiskScheduler {
+
+    private final List<Request> requests;
+
+    public SPTFScheduler(Integer head) {
+        super(head);
+        this.requests = new ArrayList<>();
+    }
+
+    /**
+     * Adds a new request to the list of pending requests.
+     *
+     * @param request the {@link Request} to add to the scheduler.
+     */
+    @Override
+    public void addRequest(Request request) {
+        requests.add(request);
+    }
+
+    /**
+     * Processes all requests, always servicing the one with the shortest positioning time next.
+     */
+    @Override
+    public void processRequests() {
+        beginProcessing();
+
+        while (!requests.isEmpty()) {
+            int next = 0;
+            double bestTime = Double.MAX_VALUE;
+            for (int i = 0; i < requests.size(); i++) {
+                Request request = requests.get(i);
+                double time = serviceTimeModel.positioningTime(head, request, scheduleTime);
+                // Ties go to the earliest arrival, then to the request added first
+                if (time < bestTime || (time == bestTime
+                        && request.getArrivalTime() < requests.get(next).getArrivalTime())) {
+                    bestTime = time;
+                    next = i;
+                }
+            }
+
+            // The scan is linear anyway, so removing in place keeps the list in insertion order
+            performHeadMovement(requests.remove(next));
+        }
+    }
+
+    @Override
+    public List<Request> getPendingRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return requests.size();
+    }
+}
@@ -0,0 +1,179 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static denkoch.Logger.SEGMENT_TUNING_BASELINE;
+import static denkoch.Logger.SEGMENT_TUNING_WINDOW_RESULT;
+import static denkoch.Logger.SEGMENT_TUNING_CONVERGED;
+
+/**
+ * Tunes the segment sizes of an {@link LFUCache} online by hill-climbing on the hit ratio.
+ * <p>
+ * The tuner measures the hit ratio over windows of a fixed number of accesses to the cache,
+ * as reported by {@link LFUCache#recordAccess(boolean)}. The first window measures the
+ * current split as the baseline. After that, it tries moving one buffer of capacity from one segment to
+ * another for a window. A move that raises the hit ratio is kept and tried again; a move
+ * that does not is undone and the next move is tried. The tuner stops once no move improves
+ * the hit ratio, or after a maximum number of windows, whichever comes first. Moves that
+ * would empty a segment are skipped without counting as failed moves.
+ */
+public class SegmentTuner {
+
+    /**
+     * Records the outcome of one measurement window.
+     */
+    public static class Window {
+        private final int window;
+        private final int[] segmentSizes;
+        private final double hitRatio;
+        private final boolean accepted;
+
+        Window(int window, int[] segmentSizes, double hitRatio, boolean accepted) {
+            this.window = window;
+            this.segmentSizes = segmentSizes;
+            this.hitRatio = hitRatio;
+            this.accepted = accepted;
+        }
+
+        public int getWindow() {
+            return window;
+        }
+
+        public int[] getSegmentSizes() {
+            return segmentSizes.clone();
+        }
+
+        public double getHitRatio() {
+            return hitRatio;
+        }
+
+        public boolean isAccepted() {
+            return accepted;
+        }
+    }
+
+    private static final int[][] MOVES = {{0, 1}, {1, 0}, {1, 2}, {2, 1}, {0, 2}, {2, 0}};
+
+    private final LFUCache cache;
+    private final int windowSize;
+    private final int maxWindows;
+    private final List<Window> history;
+
+    private int windowAccesses;
+    private int windowHits;
+    private double bestHitRatio = -1;
+    private int move = -1;
+    private int movesWithoutImprovement;
+    private boolean converged;
+
+    /**
+     * Constructs a new {@code SegmentTuner} and attaches it to the cache.
+     *
+     * @param cache      the {@link LFUCache} to tune.
+     * @param windowSize the number of accesses in a measurement window.
+     * @param maxWindows the maximum number of windows before the tuner stops.
+     */
+    public SegmentTuner(LFUCache cache, int windowSize, int maxWindows) {
+        this.cache = cache;
+        this.windowSize = windowSize;
+        this.maxWindows = maxWindows;
+        this.history = new ArrayList<>();
+        cache.setSegmentTuner(this);
+    }
+
+    /**
+     * Records a cache access and evaluates the window once it is complete.
+     *
+     * @param hit {@code true} if the access was a hit; {@code false} otherwise.
+     */
+    public void recordAccess(boolean hit) {
+        if (converged) {
+            return;
+        }
+        windowAccesses++;
+        if (hit) {
+            windowHits++;
+        }
+        if (windowAccesses < windowSize) {
+            return;
+        }
+
+        int[] measuredSizes = cache.getSegmentSizes();
+        double hitRatio = (double) windowHits / windowAccesses;
+        windowAccesses = 0;
+        windowHits = 0;
+
+        boolean baseline = move < 0;
+        boolean accepted = !baseline && hitRatio > bestHitRatio;
+        if (baseline) {
+            bestHitRatio = hitRatio;
+            move = 0;
+        } else if (accepted) {
+            bestHitRatio = hitRatio;
+            movesWithoutImprovement = 0;
+        } else {
+            applyMove(move, true);
+            move = (move + 1) % MOVES.length;
+            movesWithoutImprovement++;
+        }
+        history.add(new Window(history.size() + 1, measuredSizes, hitRatio, accepted));
+        if (baseline) {
+            Logger.log(SEGMENT_TUNING_BASELINE, history.size(), hitRatio, getCurrentSplit());
+        } else {
+            Logger.log(SEGMENT_TUNING_WINDOW_RESULT, history.size(), hitRatio, accepted, getCurrentSplit());
+        }
+
+        if (movesWithoutImprovement >= MOVES.length || history.size() >= maxWindows) {
+            converge();
+            return;
+        }
+
+        // Skip moves that would empty a segment; they are never measured, so they are not failures
+        int skipped = 0;
+        while (!applyMove(move, false)) {
+            move = (move + 1) % MOVES.length;
+            if (++skipped == MOVES.length) {
+                converge();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the current segment split as {@code left/middle/right}.
+     *
+     * @return the current split.
+     */
+    public String getCurrentSplit() {
+        int[] sizes = cache.getSegmentSizes();
+        return sizes[0] + "/" + sizes[1] + "/" + sizes[2];
+    }
+
+    public List<Window> getHistory() {
+        return Collections.unmodifiableList(history);
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    private void converge() {
+        converged = true;
+        Logger.log(SEGMENT_TUNING_CONVERGED, history.size(), getCurrentSplit(), bestHitRatio);
+    }
+
+    private boolean applyMove(int move, boolean undo) {
+        int[] sizes = cache.getSegmentSizes();
+        int from = MOVES[move][undo ? 1 : 0];
+        int to = MOVES[move][undo ? 0 : 1];
+        if (sizes[from] <= 1) {
+            return false;
+        }
+        sizes[from]--;
+        sizes[to]++;
+        cache.resize(sizes[0], sizes[1], sizes[2]);
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Issues sequential scans: each run starts on a random track and reads consecutive
+ * tracks for a geometrically distributed number of requests.
+ */
+public class SequentialRunTrackDistribution implements TrackDistribution {
+
+    private final double continueProbability;
+    private int track;
+    private boolean inRun;
+
+    /**
+     * Constructs a new {@code SequentialRunTrackDistribution}.
+     *
+     * @param meanRunLength the mean number of requests in a run.
+     */
+    public SequentialRunTrackDistribution(double meanRunLength) {
+        this.continueProbability = 1 - 1 / Math.max(meanRunLength, 1);
+    }
+
+    @Override
+    public int nextTrack(SplittableRandom random) {
+        if (inRun && random.nextDouble() < continueProbability) {
+            track = (track + 1) % NUMBER_OF_TRACKS;
+        } else {
+            track = random.nextInt(NUMBER_OF_TRACKS);
+            inRun = true;
+        }
+        return track;
+    }
+}
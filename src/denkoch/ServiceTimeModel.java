@@ -0,0 +1,62 @@
+package denkoch;
+
+/**
+ * Describes how long the disk takes to service a request.
+ * <p>
+ * The service time of a request is split into the seek to its track, the rotational
+ * delay until its sector passes under the head, and the transfer of the sector itself.
+ */
+public interface ServiceTimeModel {
+
+    /**
+     * Calculates the time needed to move the head between two tracks.
+     *
+     * @param fromTrack the track the head starts on.
+     * @param toTrack   the target track.
+     * @return the seek time in milliseconds.
+     */
+    double seekTime(int fromTrack, int toTrack);
+
+    /**
+     * Calculates the time spent waiting for a sector to rotate under the head.
+     *
+     * @param track  the track the head is on.
+     * @param sector the target sector.
+     * @param time   the simulated time at which the head arrives on the track.
+     * @return the rotational delay in milliseconds.
+     */
+    double rotationalDelay(int track, int sector, double time);
+
+    /**
+     * Calculates the time needed to read or write one sector of a track.
+     *
+     * @param track the track being accessed.
+     * @return the transfer time in milliseconds.
+     */
+    double transferTime(int track);
+
+    /**
+     * Calculates the time until the head is positioned over the sector of a request.
+     *
+     * @param fromTrack the track the head starts on.
+     * @param request   the {@link Request} to position for.
+     * @param time      the simulated time at which the seek starts.
+     * @return the seek time plus the rotational delay in milliseconds.
+     */
+    default double positioningTime(int fromTrack, Request request, double time) {
+        double seekTime = seekTime(fromTrack, request.getTrackNumber());
+        return seekTime + rotationalDelay(request.getTrackNumber(), request.getSectorNumber(), time + seekTime);
+    }
+
+    /**
+     * Calculates the total time needed to service a request.
+     *
+     * @param fromTrack the track the head starts on.
+     * @param request   the {@link Request} to service.
+     * @param time      the simulated time at which the seek starts.
+     * @return the positioning time plus the transfer time in milliseconds.
+     */
+    default double serviceTime(int fromTrack, Request request, double time) {
+        return positioningTime(fromTrack, request, time) + transferTime(request.getTrackNumber());
+    }
+}
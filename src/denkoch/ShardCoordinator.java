@@ -0,0 +1,321 @@
+package denkoch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.*;
+
+/**
+ * Runs a simulation sharded over several worker JVMs on the local machine.
+ * <p>
+ * The coordinator listens on an ephemeral loopback port, starts one {@link ShardWorker} JVM
+ * per shard with the same Java binary and class path and with logging silenced, and
+ * partitions the request stream between them either by track range or by process.
+ * Requests are shipped in batches using the {@link ShardProtocol} framing and
+ * {@link RequestCodec} encoding as they are drawn from the stream, so the workload is
+ * never held in memory as a whole. Each worker runs its own {@link DiskScheduler} and
+ * {@link LFUCache}, so a shard behaves like a separate disk with its own cache; the merged
+ * report gives the makespan (the longest shard schedule), the total disk time and the
+ * overall hit ratio.
+ * <p>
+ * Running the class on its own benchmarks throughput scaling by worker count.
+ * Usage: {@code java denkoch.ShardCoordinator [scheduler] [service time model] [workload] [partitioning]}
+ */
+public class ShardCoordinator implements AutoCloseable {
+
+    /**
+     * Enumeration defining how requests are assigned to shards.
+     */
+    enum Partitioning {
+        TRACK_RANGE, PROCESS
+    }
+
+    private final int numberOfWorkers;
+    private final Partitioning partitioning;
+    private final List<java.lang.Process> workers;
+    private final SocketChannel[] channels;
+
+    /**
+     * Starts the worker JVMs and waits until all of them have connected.
+     *
+     * @param numberOfWorkers the number of worker JVMs.
+     * @param partitioning    how requests are assigned to workers.
+     * @throws IOException if the workers cannot be started or connected.
+     */
+    public ShardCoordinator(int numberOfWorkers, Partitioning partitioning) throws IOException {
+        this.numberOfWorkers = numberOfWorkers;
+        this.partitioning = partitioning;
+        this.workers = new ArrayList<>(numberOfWorkers);
+        this.channels = new SocketChannel[numberOfWorkers];
+
+        try (ServerSocketChannel server = ServerSocketChannel.open();
+             Selector selector = Selector.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), numberOfWorkers);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            for (int i = 0; i < numberOfWorkers; i++) {
+                workers.add(startWorker(port, i));
+            }
+            acceptWorkers(server, selector);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a stream of requests to the workers and merges their results.
+     * <p>
+     * Each request is encoded into the batch of its shard as soon as it is drawn, and a
+     * batch is sent whenever it fills up.
+     *
+     * @param requests         the requests to simulate.
+     * @param scheduler        the name of the scheduler each worker runs.
+     * @param serviceTimeModel the name of the service time model each worker uses.
+     * @param order            the initial sweep order, or {@code null} for unordered schedulers.
+     * @return the merged result of all shards.
+     * @throws IOException if a worker connection fails.
+     */
+    public ShardResult run(Iterator<Request> requests, String scheduler, String serviceTimeModel,
+                           DiskScheduler.Order order) throws IOException {
+        long start = System.nanoTime();
+
+        ByteBuffer configuration = ByteBuffer.allocate(256);
+        ShardProtocol.putString(configuration, scheduler);
+        ShardProtocol.putString(configuration, serviceTimeModel);
+        ShardProtocol.putString(configuration, order == null ? "" : order.name());
+        configuration.flip();
+        for (SocketChannel channel : channels) {
+            ShardProtocol.send(channel, ShardProtocol.CONFIGURE, configuration.duplicate());
+        }
+
+        ByteBuffer[] batches = new ByteBuffer[numberOfWorkers];
+        for (int i = 0; i < numberOfWorkers; i++) {
+            batches[i] = ByteBuffer.allocate(ShardProtocol.BATCH_SIZE * RequestCodec.BYTES);
+        }
+
+        while (requests.hasNext()) {
+            Request request = requests.next();
+            int shard = shardOf(request);
+            RequestCodec.write(batches[shard], request);
+            if (!batches[shard].hasRemaining()) {
+                ShardProtocol.send(channels[shard], ShardProtocol.BATCH, batches[shard].flip());
+                batches[shard].clear();
+            }
+        }
+
+        for (int i = 0; i < numberOfWorkers; i++) {
+            if (batches[i].position() > 0) {
+                ShardProtocol.send(channels[i], ShardProtocol.BATCH, batches[i].flip());
+            }
+            ShardProtocol.send(channels[i], ShardProtocol.FINISH, ByteBuffer.allocate(0));
+        }
+
+        ShardResult result = new ShardResult(numberOfWorkers);
+        for (int i = 0; i < numberOfWorkers; i++) {
+            ByteBuffer frame = ShardProtocol.receive(channels[i]);
+            if (frame.get() != ShardProtocol.RESULT) {
+                throw new IllegalStateException(INVALID_SHARD_FRAME_ERROR);
+            }
+            result.requests[i] = frame.getInt();
+            result.scheduleTimes[i] = frame.getDouble();
+            result.hits[i] = frame.getLong();
+            result.accesses[i] = frame.getLong();
+            result.processingTimes[i] = frame.getDouble();
+        }
+        result.wallTime = (System.nanoTime() - start) / 1e6;
+        return result;
+    }
+
+    /**
+     * Finds the shard a request belongs to.
+     */
+    int shardOf(Request request) {
+        return switch (partitioning) {
+            case TRACK_RANGE -> request.getTrackNumber() * numberOfWorkers / (NUMBER_OF_TRACKS + 1);
+            case PROCESS -> Math.floorMod(request.getProcessId(), numberOfWorkers);
+        };
+    }
+
+    /**
+     * Closes the worker connections, which makes the workers exit, and reaps the JVMs. A worker
+     * that has not exited within {@link SystemParams#SHARD_WORKER_EXIT_TIMEOUT} is killed.
+     */
+    @Override
+    public void close() {
+        for (SocketChannel channel : channels) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException ignored) {
+                // The worker is going away anyway
+            }
+        }
+        try {
+            for (java.lang.Process worker : workers) {
+                if (!worker.waitFor(SHARD_WORKER_EXIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    worker.destroyForcibly().waitFor();
+                }
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(java.lang.Process::destroyForcibly);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static java.lang.Process startWorker(int port, int index) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-Ddenkoch.quiet=true", "-cp", System.getProperty("java.class.path"),
+                ShardWorker.class.getName(), String.valueOf(port), String.valueOf(index))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Accepts one connection per worker, failing if a worker exits before it has connected or
+     * reports a shard index that is out of range or already taken.
+     */
+    private void acceptWorkers(ServerSocketChannel server, Selector selector) throws IOException {
+        int connected = 0;
+        while (connected < numberOfWorkers) {
+            selector.select(100);
+            selector.selectedKeys().clear();
+
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(true);
+                channel.socket().setTcpNoDelay(true);
+                ByteBuffer hello = ShardProtocol.receive(channel);
+                if (hello.get() != ShardProtocol.HELLO) {
+                    channel.close();
+                    throw new IOException(INVALID_SHARD_FRAME_ERROR);
+                }
+                int index = hello.getInt();
+                if (index < 0 || index >= numberOfWorkers || channels[index] != null) {
+                    channel.close();
+                    throw new IOException(INVALID_SHARD_INDEX_ERROR);
+                }
+                channels[index] = channel;
+                connected++;
+            }
+
+            for (java.lang.Process worker : workers) {
+                if (!worker.isAlive() && connected < numberOfWorkers) {
+                    throw new IllegalStateException(SHARD_WORKER_EXITED_ERROR);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merged result of a sharded run.
+     */
+    public static class ShardResult {
+        private final int[] requests;
+        private final double[] scheduleTimes;
+        private final long[] hits;
+        private final long[] accesses;
+        private final double[] processingTimes;
+        private double wallTime;
+
+        ShardResult(int numberOfWorkers) {
+            this.requests = new int[numberOfWorkers];
+            this.scheduleTimes = new double[numberOfWorkers];
+            this.hits = new long[numberOfWorkers];
+            this.accesses = new long[numberOfWorkers];
+            this.processingTimes = new double[numberOfWorkers];
+        }
+
+        public int getTotalRequests() {
+            int total = 0;
+            for (int shardRequests : requests) {
+                total += shardRequests;
+            }
+            return total;
+        }
+
+        public double getMakespan() {
+            double makespan = 0;
+            for (double scheduleTime : scheduleTimes) {
+                makespan = Math.max(makespan, scheduleTime);
+            }
+            return makespan;
+        }
+
+        public double getTotalDiskTime() {
+            double total = 0;
+            for (double scheduleTime : scheduleTimes) {
+                total += scheduleTime;
+            }
+            return total;
+        }
+
+        public double getHitRatio() {
+            long totalHits = 0;
+            long totalAccesses = 0;
+            for (int i = 0; i < hits.length; i++) {
+                totalHits += hits[i];
+                totalAccesses += accesses[i];
+            }
+            return totalAccesses == 0 ? 0 : (double) totalHits / totalAccesses;
+        }
+
+        public double getWallTime() {
+            return wallTime;
+        }
+
+        /**
+         * Logs the result of every shard followed by the merged result.
+         */
+        public void log(Partitioning partitioning) {
+            for (int i = 0; i < requests.length; i++) {
+                double hitRatio = accesses[i] == 0 ? 0 : (double) hits[i] / accesses[i];
+                Logger.log(SHARD_WORKER_RESULT, i, requests[i], scheduleTimes[i], hitRatio * 100, processingTimes[i]);
+            }
+            Logger.log(SHARD_MERGED_RESULT, requests.length, partitioning, getTotalRequests(), getMakespan(),
+                    getTotalDiskTime(), getHitRatio() * 100, wallTime, getTotalRequests() / (wallTime / 1000));
+        }
+    }
+
+    /**
+     * Benchmarks throughput scaling by running the same generated workload on 1, 2, 4, ...
+     * workers, up to {@link SystemParams#SHARD_MAX_WORKERS}.
+     */
+    public static void main(String[] args) {
+        String scheduler = args.length > 0 ? args[0] : "LOOK";
+        String serviceTimeModel = args.length > 1 ? args[1] : "MECHANICAL";
+        String workload = args.length > 2 ? args[2] : "UNIFORM";
+        Partitioning partitioning = args.length > 3 ? Partitioning.valueOf(args[3]) : Partitioning.TRACK_RANGE;
+
+        WorkloadGenerator generator = new WorkloadGenerator(WORKLOAD_SEED, Main.createWorkload(workload));
+
+        for (int workers = 1; workers <= SHARD_MAX_WORKERS; workers *= 2) {
+            long start = System.nanoTime();
+            try (ShardCoordinator coordinator = new ShardCoordinator(workers, partitioning)) {
+                Logger.log(SHARD_WORKERS_STARTED, workers, (System.nanoTime() - start) / 1e6);
+                // The same seed gives every worker count the same workload
+                Iterator<Request> requests = generator.requests(NUMBER_OF_PROCESSES, SHARD_BENCHMARK_REQUESTS);
+                coordinator.run(requests, scheduler, serviceTimeModel, DiskScheduler.Order.ASC).log(partitioning);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
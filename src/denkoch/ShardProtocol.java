@@ -0,0 +1,79 @@
+package denkoch;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary framing used between the {@link ShardCoordinator} and its {@link ShardWorker}s.
+ * <p>
+ * Every frame is an int payload length, a frame type byte and the payload. A worker opens
+ * the conversation with {@link #HELLO} carrying its shard index, receives one {@link #CONFIGURE}
+ * frame, any number of {@link #BATCH} frames of encoded requests and a {@link #FINISH} frame,
+ * and answers with a single {@link #RESULT} frame.
+ */
+final class ShardProtocol {
+
+    static final byte HELLO = 1;
+    static final byte CONFIGURE = 2;
+    static final byte BATCH = 3;
+    static final byte FINISH = 4;
+    static final byte RESULT = 5;
+
+    static final int BATCH_SIZE = 4096;
+    static final int RESULT_BYTES = Integer.BYTES + Double.BYTES + Long.BYTES * 2 + Double.BYTES;
+
+    private ShardProtocol() {
+    }
+
+    /**
+     * Sends a frame whose payload is the remaining content of the buffer.
+     */
+    static void send(SocketChannel channel, byte type, ByteBuffer payload) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Byte.BYTES);
+        header.putInt(payload.remaining()).put(type).flip();
+        while (header.hasRemaining() || payload.hasRemaining()) {
+            channel.write(new ByteBuffer[]{header, payload});
+        }
+    }
+
+    /**
+     * Receives a frame.
+     *
+     * @return a buffer holding the frame type byte followed by the payload.
+     */
+    static ByteBuffer receive(SocketChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Byte.BYTES);
+        readFully(channel, header);
+        int length = header.getInt(0);
+
+        ByteBuffer frame = ByteBuffer.allocate(Byte.BYTES + length);
+        frame.put(header.get(Integer.BYTES));
+        readFully(channel, frame);
+        return frame.flip();
+    }
+
+    /**
+     * Encodes a string as a short length followed by its UTF-8 bytes.
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package denkoch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static denkoch.Logger.INVALID_SHARD_FRAME_ERROR;
+
+/**
+ * Worker JVM of a sharded simulation.
+ * <p>
+ * The worker connects to the {@link ShardCoordinator} on the loopback interface, builds the
+ * scheduler and service time model named in the configuration frame, and feeds every request
+ * it receives through its own {@link LFUCache} into the scheduler. When the coordinator
+ * finishes the stream, the worker processes the queued requests and reports its schedule
+ * time, cache statistics and wall-clock processing time.
+ * <p>
+ * Usage: {@code java denkoch.ShardWorker <port> <shard index>}
+ */
+public class ShardWorker {
+
+    public static void main(String[] args) {
+        int port = Integer.parseInt(args[0]);
+        int index = Integer.parseInt(args[1]);
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            ShardProtocol.send(channel, ShardProtocol.HELLO, ByteBuffer.allocate(Integer.BYTES).putInt(index).flip());
+            run(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void run(SocketChannel channel) throws IOException {
+        ByteBuffer frame = ShardProtocol.receive(channel);
+        if (frame.get() != ShardProtocol.CONFIGURE) {
+            throw new IllegalStateException(INVALID_SHARD_FRAME_ERROR);
+        }
+        DiskScheduler diskScheduler = Main.createScheduler(ShardProtocol.getString(frame));
+        diskScheduler.setServiceTimeModel(Main.createServiceTimeModel(ShardProtocol.getString(frame)));
+        String order = ShardProtocol.getString(frame);
+        if (!order.isEmpty()) {
+            diskScheduler.setOrder(DiskScheduler.Order.valueOf(order));
+        }
+        LFUCache lfuCache = new LFUCache();
+
+        int requests = 0;
+        for (frame = ShardProtocol.receive(channel); frame.get() == ShardProtocol.BATCH;
+             frame = ShardProtocol.receive(channel)) {
+            while (frame.hasRemaining()) {
+                Request request = RequestCodec.read(frame);
+                lfuCache.getBuffer(request.getTrackNumber());
+                diskScheduler.addRequest(request);
+                requests++;
+            }
+        }
+        if (frame.get(0) != ShardProtocol.FINISH) {
+            throw new IllegalStateException(INVALID_SHARD_FRAME_ERROR);
+        }
+
+        long start = System.nanoTime();
+        diskScheduler.processRequests();
+        double processingTime = (System.nanoTime() - start) / 1e6;
+
+        ByteBuffer result = ByteBuffer.allocate(ShardProtocol.RESULT_BYTES)
+                .putInt(requests)
+                .putDouble(diskScheduler.getScheduleTime())
+                .putLong(lfuCache.getHits())
+                .putLong(lfuCache.getAccesses())
+                .putDouble(processingTime);
+        ShardProtocol.send(channel, ShardProtocol.RESULT, result.flip());
+    }
+}
@@ -0,0 +1,281 @@
+package denkoch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static denkoch.Logger.CHECKPOINT_ARRAY_ERROR;
+import static denkoch.Logger.CHECKPOINT_SCHEDULER_ERROR;
+import static denkoch.Logger.INVALID_CHECKPOINT_ERROR;
+
+/**
+ * Snapshot of a running simulation that can be written to disk and resumed or forked later.
+ * <p>
+ * A checkpoint holds the pending requests of every {@link Process}, the head position,
+ * direction, pending requests and accumulated time of the {@link DiskScheduler}, the
+ * segments and buffer frequencies of the {@link LFUCache}, and the driver clocks. The
+ * private caches of a {@link CacheHierarchy} and any partially coalesced interrupt batch
+ * are not captured and start empty after a resume. A {@link DiskArray} cannot be
+ * checkpointed, since the state of its member disks is not captured, and neither can the
+ * {@link FLOOKScheduler}, {@link FairQueueScheduler}, {@link AnticipatoryScheduler} and
+ * {@link AdaptiveScheduler}, whose sweeps, per-process queues, virtual time, anticipation
+ * statistics or chosen policy go beyond a flat list of pending requests.
+ * <p>
+ * Taking a checkpoint only encodes the state into a buffer; the buffer is written to disk
+ * through a {@link FileChannel} on a background thread, into a temporary file that then
+ * replaces the previous checkpoint atomically. Reading maps the file into memory.
+ */
+public class SimulationCheckpoint {
+
+    private static final int MAGIC = 0x44534B43;
+    private static final short VERSION = 1;
+    private static final int BUFFER_BYTES = Integer.BYTES * 2;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final double simulationTime;
+    private final double driverTime;
+    private final List<Process> processes;
+    private final int head;
+    private final DiskScheduler.Order order;
+    private final double scheduleTime;
+    private final List<Request> pendingRequests;
+    private final int[] segmentSizes;
+    private final List<List<Buffer>> segments;
+
+    private SimulationCheckpoint(double simulationTime, double driverTime, List<Process> processes, int head,
+                                 DiskScheduler.Order order, double scheduleTime, List<Request> pendingRequests,
+                                 int[] segmentSizes, List<List<Buffer>> segments) {
+        this.simulationTime = simulationTime;
+        this.driverTime = driverTime;
+        this.processes = processes;
+        this.head = head;
+        this.order = order;
+        this.scheduleTime = scheduleTime;
+        this.pendingRequests = pendingRequests;
+        this.segmentSizes = segmentSizes;
+        this.segments = segments;
+    }
+
+    /**
+     * Encodes the state of a simulation into a checkpoint buffer.
+     *
+     * @param simulationTime the total simulation time so far.
+     * @param driverTime     the driver clock so far.
+     * @param processes      the processes and their pending requests.
+     * @param diskScheduler  the {@link DiskScheduler} of the simulation.
+     * @param lfuCache       the {@link LFUCache} of the simulation.
+     * @return a buffer ready to be written, positioned at its start.
+     * @throws IllegalArgumentException if the scheduler cannot be checkpointed.
+     */
+    public static ByteBuffer encode(double simulationTime, double driverTime, List<Process> processes,
+                                    DiskScheduler diskScheduler, LFUCache lfuCache) {
+        checkSupported(diskScheduler);
+        List<Request> schedulerRequests = diskScheduler.getPendingRequests();
+        List<List<Buffer>> cacheSegments = lfuCache.getSegments();
+
+        int size = Integer.BYTES + Short.BYTES + Double.BYTES * 2 + Integer.BYTES;
+        for (Process process : processes) {
+            size += Integer.BYTES * 2 + process.getRequests().size() * RequestCodec.BYTES;
+        }
+        size += Integer.BYTES + Byte.BYTES + Double.BYTES + Integer.BYTES + schedulerRequests.size() * RequestCodec.BYTES;
+        size += Integer.BYTES * 3;
+        for (List<Buffer> segment : cacheSegments) {
+            size += Integer.BYTES + segment.size() * BUFFER_BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(VERSION).putDouble(simulationTime).putDouble(driverTime);
+
+        buffer.putInt(processes.size());
+        for (Process process : processes) {
+            buffer.putInt(process.getProcessId());
+            putRequests(buffer, process.getRequests());
+        }
+
+        buffer.putInt(diskScheduler.head);
+        buffer.put((byte) (diskScheduler.order == null ? -1 : diskScheduler.order.ordinal()));
+        buffer.putDouble(diskScheduler.scheduleTime);
+        putRequests(buffer, schedulerRequests);
+
+        for (int segmentSize : lfuCache.getSegmentSizes()) {
+            buffer.putInt(segmentSize);
+        }
+        for (List<Buffer> segment : cacheSegments) {
+            buffer.putInt(segment.size());
+            for (Buffer cached : segment) {
+                buffer.putInt(cached.getBufferId()).putInt(cached.getFrequency());
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Writes an encoded checkpoint to disk on the background writer thread.
+     *
+     * @param path     the checkpoint file.
+     * @param snapshot the buffer returned by {@link #encode}.
+     * @return a future that completes once the checkpoint is durable.
+     */
+    public static Future<?> write(Path path, ByteBuffer snapshot) {
+        return WRITER.submit(() -> {
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (snapshot.hasRemaining()) {
+                    channel.write(snapshot);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads a checkpoint from disk.
+     *
+     * @param path the checkpoint file.
+     * @return the decoded checkpoint.
+     * @throws IOException if the file cannot be read or is not a checkpoint.
+     */
+    public static SimulationCheckpoint read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES + Short.BYTES
+                    || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException(INVALID_CHECKPOINT_ERROR);
+            }
+
+            double simulationTime = buffer.getDouble();
+            double driverTime = buffer.getDouble();
+
+            int processCount = buffer.getInt();
+            List<Process> processes = new ArrayList<>(processCount);
+            for (int i = 0; i < processCount; i++) {
+                int processId = buffer.getInt();
+                processes.add(new Process(processId, new LinkedList<>(getRequests(buffer))));
+            }
+
+            int head = buffer.getInt();
+            byte order = buffer.get();
+            double scheduleTime = buffer.getDouble();
+            List<Request> pendingRequests = getRequests(buffer);
+
+            int[] segmentSizes = {buffer.getInt(), buffer.getInt(), buffer.getInt()};
+            List<List<Buffer>> segments = new ArrayList<>(segmentSizes.length);
+            for (int i = 0; i < segmentSizes.length; i++) {
+                int count = buffer.getInt();
+                List<Buffer> segment = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    segment.add(new Buffer(buffer.getInt(), buffer.getInt()));
+                }
+                segments.add(segment);
+            }
+
+            return new SimulationCheckpoint(simulationTime, driverTime, processes, head,
+                    order < 0 ? null : DiskScheduler.Order.values()[order], scheduleTime, pendingRequests,
+                    segmentSizes, segments);
+        } catch (RuntimeException e) {
+            throw new IOException(INVALID_CHECKPOINT_ERROR, e);
+        }
+    }
+
+    /**
+     * Restores the scheduler and cache state of the checkpoint. The scheduler may be of a
+     * different kind than the one that was checkpointed, which forks the run into a what-if
+     * experiment from the same warmed-up state.
+     *
+     * @param diskScheduler a freshly created {@link DiskScheduler}.
+     * @param lfuCache      the {@link LFUCache} to fill.
+     * @throws IllegalArgumentException if the scheduler cannot be checkpointed.
+     */
+    public void restore(DiskScheduler diskScheduler, LFUCache lfuCache) {
+        checkSupported(diskScheduler);
+        diskScheduler.head = head;
+        if (order != null) {
+            diskScheduler.setOrder(order);
+        }
+        diskScheduler.scheduleTime = scheduleTime;
+        pendingRequests.forEach(diskScheduler::addRequest);
+
+        lfuCache.restore(segmentSizes, segments);
+    }
+
+    /**
+     * Checks whether the whole state of a scheduler is its head, direction, clock and pending
+     * requests, which is all a checkpoint captures.
+     *
+     * @param diskScheduler the {@link DiskScheduler} to check.
+     * @return {@code true} if the scheduler can be checkpointed and restored.
+     */
+    public static boolean isSupported(DiskScheduler diskScheduler) {
+        return !(diskScheduler instanceof DiskArray) && !hasInternalState(diskScheduler);
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public double getDriverTime() {
+        return driverTime;
+    }
+
+    public List<Process> getProcesses() {
+        return processes;
+    }
+
+    private static void checkSupported(DiskScheduler diskScheduler) {
+        if (diskScheduler instanceof DiskArray) {
+            throw new IllegalArgumentException(CHECKPOINT_ARRAY_ERROR);
+        }
+        if (hasInternalState(diskScheduler)) {
+            throw new IllegalArgumentException(CHECKPOINT_SCHEDULER_ERROR);
+        }
+    }
+
+    private static boolean hasInternalState(DiskScheduler diskScheduler) {
+        return diskScheduler instanceof FLOOKScheduler || diskScheduler instanceof FairQueueScheduler
+                || diskScheduler instanceof AnticipatoryScheduler || diskScheduler instanceof AdaptiveScheduler;
+    }
+
+    private static void putRequests(ByteBuffer buffer, List<Request> requests) {
+        buffer.putInt(requests.size());
+        for (Request request : requests) {
+            RequestCodec.write(buffer, request);
+        }
+    }
+
+    private static List<Request> getRequests(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<Request> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(RequestCodec.read(buffer));
+        }
+        return requests;
+    }
+}
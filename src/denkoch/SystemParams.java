@@ -5,6 +5,24 @@ public interface SystemParams {
     Integer NUMBER_OF_PROCESSES = 7;
     Integer NUMBER_OF_REQUESTS = 100;
 
+    String DEFAULT_ARRAY_LAYOUT = "SINGLE";
+    String DEFAULT_SERVICE_TIME_MODEL = "FIXED";
+    String DEFAULT_WORKLOAD = "UNIFORM";
+
+    Long WORKLOAD_SEED = 42L;
+    Double WRITE_RATIO = 0.5;
+    Double ARRIVAL_RATE = 0.1;
+    Double ZIPF_EXPONENT = 0.99;
+    Double HOTSPOT_TRACK_FRACTION = 0.1;
+    Double HOTSPOT_ACCESS_FRACTION = 0.9;
+    Double MEAN_SEQUENTIAL_RUN = 8.0;
+    Double MEAN_BURST_SIZE = 8.0;
+    Double BURST_ARRIVAL_RATE = 1.0;
+    Double MEAN_BURST_IDLE_TIME = 50.0;
+    Integer WORKLOAD_BENCHMARK_REQUESTS = 10_000_000;
+
+    Boolean ONLINE_DISPATCH = false;
+    Integer NUMBER_OF_DISKS = 4;
     Integer NUMBER_OF_TRACKS = 512;
     Integer SECTORS_PER_TRACK = 500;
     Double TIME_PER_TRACK = 0.5;
@@ -13,17 +31,61 @@ public interface SystemParams {
     Double AVG_ROTATION_DELAY = (double) (60 * 1000) / (2 * RPM);
     Double SECTOR_ACCESS_TIME = (double) (60 * 1000) / (SECTORS_PER_TRACK * RPM);
 
+    Double SEEK_SETTLE_TIME = 1.0;
+    Double SEEK_ACCELERATION_TIME = 0.4;
+    Integer SEEK_COAST_DISTANCE = 100;
+    Double SEEK_COAST_TIME_PER_TRACK = 0.02;
+    Integer NUMBER_OF_ZONES = 4;
+    Double ZONE_SECTOR_REDUCTION = 0.1;
+
     Integer NUMBER_OF_BUFFERS = 10;
 //    Integer LEFT_SEGMENT_SIZE = 2;
 //    Integer MIDDLE_SEGMENT_SIZE = 2;
     Integer LEFT_SEGMENT_SIZE = 3;
     Integer MIDDLE_SEGMENT_SIZE = 3;
     Integer RIGHT_SEGMENT_SIZE = NUMBER_OF_BUFFERS - LEFT_SEGMENT_SIZE - MIDDLE_SEGMENT_SIZE;
+    Integer SEGMENT_TUNING_WINDOW = 0;
+    Integer SEGMENT_TUNING_MAX_WINDOWS = 30;
+    Integer PRIVATE_CACHE_SIZE = 0;
+    Boolean EXCLUSIVE_PRIVATE_CACHE = false;
 
     Double READ_SYSTEM_TIME = 0.15;
     Double WRITE_SYSTEM_TIME = 0.15;
     Double INTERRUPT_TIME = 0.05;
+    Integer INTERRUPT_BATCH_SIZE = 1;
+    Double INTERRUPT_MAX_LATENCY = 20.0;
     Double QUANTUM = 20.0;
     Double PROCESSING_TIME = 7.0;
 
+    Integer SHALLOW_QUEUE_DEPTH = 2;
+    Integer DEEP_QUEUE_DEPTH = 32;
+    Integer LOCAL_SEEK_DISTANCE = 8;
+    Integer ADAPTIVE_HYSTERESIS = 2;
+    Integer ADAPTIVE_BENCHMARK_REQUESTS = 5_000;
+
+    String CHECKPOINT_FILE = "simulation.checkpoint";
+    Integer CHECKPOINT_INTERVAL = 0;
+
+    Boolean TELEMETRY_ENABLED = false;
+    Double TELEMETRY_WINDOW = 50.0;
+    Integer TELEMETRY_CAPACITY = 1024;
+    Integer TELEMETRY_TIMING_INTERVAL = 64;
+    String TELEMETRY_FILE = "telemetry.csv";
+    String TELEMETRY_DISK_FILE = "telemetry-disk%d.csv";
+
+    Boolean RESULT_LOG_ENABLED = false;
+    String RESULT_LOG_FILE = "results.rlog";
+    Integer RESULT_LOG_BLOCK_ROWS = 65536;
+
+    Integer SHARD_MAX_WORKERS = 4;
+    Integer SHARD_WORKER_EXIT_TIMEOUT = 5_000;
+    Integer SHARD_BENCHMARK_REQUESTS = 100_000;
+
+    Double ANTICIPATION_MAX_WINDOW = 6.0;
+    Double ANTICIPATION_THINK_FACTOR = 1.5;
+    Integer ANTICIPATION_SEEK_DISTANCE = 32;
+
+    Integer TRACK_ORDERING_BENCHMARK_REQUESTS = 5_000_000;
+    Integer BATCH_BENCHMARK_REQUESTS = 20_000_000;
+
 }
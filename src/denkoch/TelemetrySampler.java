@@ -0,0 +1,296 @@
+package denkoch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static denkoch.Logger.TELEMETRY_STATISTICS;
+
+/**
+ * Samples the disk head position, queue depth, sweep direction and {@link LFUCache} segment
+ * occupancy after every serviced request, aggregated into fixed windows of simulated time.
+ * The driver also takes a sample after every cache access, so the windows cover the cache
+ * while it is filled as well as the disk while it services the queue. Samples of the disk
+ * are shifted by a clock offset, which places them after the driver phase.
+ * <p>
+ * Each window keeps the minimum, maximum and sum of every signal in preallocated ring buffers,
+ * so sampling never allocates and memory stays constant however long the run is; the oldest
+ * windows are overwritten once the ring is full. The simulation thread is the only writer. A
+ * completed window is published by bumping a volatile counter after its slot is written, so
+ * any other thread can take a {@link #snapshot()} while the simulation is running; windows
+ * the writer may have overwritten during the copy are dropped from the snapshot.
+ * <p>
+ * Every {@link SystemParams#TELEMETRY_TIMING_INTERVAL}-th sample is timed to estimate the
+ * sampling cost without paying for a clock read on every request.
+ */
+public class TelemetrySampler {
+
+    /**
+     * Enumeration defining the sampled signals, in CSV column order.
+     */
+    enum Signal {
+        HEAD, QUEUE_DEPTH, DIRECTION, LEFT_SEGMENT, MIDDLE_SEGMENT, RIGHT_SEGMENT
+    }
+
+    private static final int SIGNALS = Signal.values().length;
+
+    private final LFUCache lfuCache;
+    private final double windowLength;
+    private final int capacity;
+    private final int timingInterval;
+
+    private final double[] windowStarts;
+    private final int[] windowSamples;
+    private final int[] minimums;
+    private final int[] maximums;
+    private final long[] sums;
+    private volatile long publishedWindows;
+
+    private final int[] values;
+    private final int[] currentMinimums;
+    private final int[] currentMaximums;
+    private final long[] currentSums;
+    private double clockOffset;
+    private double currentStart = -1;
+    private int currentSamples;
+    private int previousHead = -1;
+    private int direction = 1;
+
+    private long samples;
+    private long timedSamples;
+    private long timedNanos;
+
+    /**
+     * Constructs a new {@code TelemetrySampler}.
+     *
+     * @param lfuCache       the {@link LFUCache} whose segment occupancy is sampled.
+     * @param windowLength   the length of a window in milliseconds of simulated time.
+     * @param capacity       the number of windows retained in the ring buffers.
+     * @param timingInterval every how many samples the sampling cost is measured.
+     */
+    public TelemetrySampler(LFUCache lfuCache, double windowLength, int capacity, int timingInterval) {
+        this.lfuCache = lfuCache;
+        this.windowLength = windowLength;
+        this.capacity = capacity;
+        this.timingInterval = timingInterval;
+
+        this.windowStarts = new double[capacity];
+        this.windowSamples = new int[capacity];
+        this.minimums = new int[capacity * SIGNALS];
+        this.maximums = new int[capacity * SIGNALS];
+        this.sums = new long[capacity * SIGNALS];
+
+        this.values = new int[SIGNALS];
+        this.currentMinimums = new int[SIGNALS];
+        this.currentMaximums = new int[SIGNALS];
+        this.currentSums = new long[SIGNALS];
+    }
+
+    /**
+     * Sets the offset added to the time of every following sample.
+     *
+     * @param clockOffset the offset in milliseconds of simulated time.
+     */
+    public void setClockOffset(double clockOffset) {
+        this.clockOffset = clockOffset;
+    }
+
+    public double getClockOffset() {
+        return clockOffset;
+    }
+
+    /**
+     * Creates an empty sampler with the same cache, window length, capacity and timing interval,
+     * for a disk that runs on a thread of its own.
+     *
+     * @return the new sampler.
+     */
+    TelemetrySampler newSampler() {
+        return new TelemetrySampler(lfuCache, windowLength, capacity, timingInterval);
+    }
+
+    /**
+     * Records the state after a request has been serviced or the cache has been accessed.
+     * Called by the simulation thread only.
+     *
+     * @param time       the simulated time of the sample, before the clock offset is added.
+     * @param head       the disk head position.
+     * @param queueDepth the number of requests still waiting for the disk.
+     */
+    public void sample(double time, int head, int queueDepth) {
+        time += clockOffset;
+        boolean timed = ++samples % timingInterval == 0;
+        long start = timed ? System.nanoTime() : 0;
+
+        if (previousHead >= 0 && head != previousHead) {
+            direction = head > previousHead ? 1 : -1;
+        }
+        previousHead = head;
+
+        values[Signal.HEAD.ordinal()] = head;
+        values[Signal.QUEUE_DEPTH.ordinal()] = queueDepth;
+        values[Signal.DIRECTION.ordinal()] = direction;
+        values[Signal.LEFT_SEGMENT.ordinal()] = lfuCache.getSegmentOccupancy(0);
+        values[Signal.MIDDLE_SEGMENT.ordinal()] = lfuCache.getSegmentOccupancy(1);
+        values[Signal.RIGHT_SEGMENT.ordinal()] = lfuCache.getSegmentOccupancy(2);
+
+        if (currentSamples > 0 && (time >= currentStart + windowLength || time < currentStart)) {
+            flush();
+        }
+        if (currentSamples == 0) {
+            currentStart = Math.floor(time / windowLength) * windowLength;
+            for (int signal = 0; signal < SIGNALS; signal++) {
+                currentMinimums[signal] = values[signal];
+                currentMaximums[signal] = values[signal];
+                currentSums[signal] = 0;
+            }
+        }
+        for (int signal = 0; signal < SIGNALS; signal++) {
+            currentMinimums[signal] = Math.min(currentMinimums[signal], values[signal]);
+            currentMaximums[signal] = Math.max(currentMaximums[signal], values[signal]);
+            currentSums[signal] += values[signal];
+        }
+        currentSamples++;
+
+        if (timed) {
+            timedNanos += System.nanoTime() - start;
+            timedSamples++;
+        }
+    }
+
+    /**
+     * Publishes the window in progress, if any. Called by the simulation thread only.
+     */
+    public void flush() {
+        if (currentSamples == 0) {
+            return;
+        }
+        long window = publishedWindows;
+        int slot = (int) (window % capacity);
+        windowStarts[slot] = currentStart;
+        windowSamples[slot] = currentSamples;
+        System.arraycopy(currentMinimums, 0, minimums, slot * SIGNALS, SIGNALS);
+        System.arraycopy(currentMaximums, 0, maximums, slot * SIGNALS, SIGNALS);
+        System.arraycopy(currentSums, 0, sums, slot * SIGNALS, SIGNALS);
+        currentSamples = 0;
+
+        publishedWindows = window + 1;
+    }
+
+    /**
+     * Copies the published windows that are still retained. Safe to call from any thread.
+     *
+     * @return the windows in time order, oldest first.
+     */
+    public List<Window> snapshot() {
+        long published = publishedWindows;
+        long first = Math.max(0, published - capacity);
+
+        List<Window> windows = new ArrayList<>((int) (published - first));
+        for (long window = first; window < published; window++) {
+            int slot = (int) (window % capacity);
+            int offset = slot * SIGNALS;
+            int[] windowMinimums = new int[SIGNALS];
+            int[] windowMaximums = new int[SIGNALS];
+            long[] windowSums = new long[SIGNALS];
+            System.arraycopy(minimums, offset, windowMinimums, 0, SIGNALS);
+            System.arraycopy(maximums, offset, windowMaximums, 0, SIGNALS);
+            System.arraycopy(sums, offset, windowSums, 0, SIGNALS);
+            windows.add(new Window(window, windowStarts[slot], windowSamples[slot],
+                    windowMinimums, windowMaximums, windowSums));
+        }
+
+        // The slot of window w is rewritten while window w + capacity is published
+        long oldestIntact = publishedWindows - capacity + 1;
+        windows.removeIf(window -> window.index < oldestIntact);
+        return windows;
+    }
+
+    /**
+     * Writes a snapshot as CSV with one row per window: the window start time, the number
+     * of samples and the minimum, maximum and mean of every signal.
+     *
+     * @param file the file to write.
+     * @return the number of windows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public int writeCsv(Path file) throws IOException {
+        List<Window> windows = snapshot();
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("start,samples");
+            for (Signal signal : Signal.values()) {
+                String name = signal.name().toLowerCase(Locale.ROOT);
+                writer.write("," + name + "_min," + name + "_max," + name + "_mean");
+            }
+            writer.write('\n');
+
+            for (Window window : windows) {
+                writer.write(String.format(Locale.ROOT, "%.1f,%d", window.start, window.samples));
+                for (Signal signal : Signal.values()) {
+                    writer.write(String.format(Locale.ROOT, ",%d,%d,%.2f", window.getMin(signal),
+                            window.getMax(signal), window.getMean(signal)));
+                }
+                writer.write('\n');
+            }
+        }
+        return windows.size();
+    }
+
+    /**
+     * Logs the number of samples and windows, the measured sampling cost and the memory
+     * held by the ring buffers.
+     */
+    public void logStatistics() {
+        double nanosPerSample = timedSamples == 0 ? 0 : (double) timedNanos / timedSamples;
+        long published = publishedWindows;
+        long bufferBytes = (long) capacity * (Double.BYTES + Integer.BYTES
+                + SIGNALS * (Integer.BYTES * 2 + Long.BYTES));
+        Logger.log(TELEMETRY_STATISTICS, samples, published, Math.min(published, capacity),
+                nanosPerSample, nanosPerSample * samples / 1e6, bufferBytes);
+    }
+
+    /**
+     * Aggregates of all signals over one window of simulated time.
+     */
+    public static class Window {
+        private final long index;
+        private final double start;
+        private final int samples;
+        private final int[] minimums;
+        private final int[] maximums;
+        private final long[] sums;
+
+        Window(long index, double start, int samples, int[] minimums, int[] maximums, long[] sums) {
+            this.index = index;
+            this.start = start;
+            this.samples = samples;
+            this.minimums = minimums;
+            this.maximums = maximums;
+            this.sums = sums;
+        }
+
+        public double getStart() {
+            return start;
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        public int getMin(Signal signal) {
+            return minimums[signal.ordinal()];
+        }
+
+        public int getMax(Signal signal) {
+            return maximums[signal.ordinal()];
+        }
+
+        public double getMean(Signal signal) {
+            return (double) sums[signal.ordinal()] / samples;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the track of the next request in a workload.
+ * <p>
+ * Implementations may keep state between calls, such as the position of a sequential
+ * scan, so every process needs its own instance.
+ */
+public interface TrackDistribution {
+
+    /**
+     * Draws the track of the next request.
+     *
+     * @param random the random stream of the process issuing the request.
+     * @return a track number between 0 and {@link SystemParams#NUMBER_OF_TRACKS} (exclusive).
+     */
+    int nextTrack(SplittableRandom random);
+}
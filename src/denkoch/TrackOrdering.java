@@ -0,0 +1,146 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static denkoch.Logger.TRACK_ORDERING_BENCHMARK_RESULT;
+import static denkoch.SystemParams.*;
+
+/**
+ * Orders requests by track number using a counting sort over the bounded track range.
+ * <p>
+ * Track numbers never exceed {@link SystemParams#NUMBER_OF_TRACKS}, so a sweep can be
+ * built in O(n + tracks) time without comparisons. The bucket and output arrays are
+ * reused between sweeps and only grow when the queue gets deeper than ever before.
+ * <p>
+ * Running the class on its own benchmarks the counting sort against the comparator sort
+ * it replaced. Usage: {@code java denkoch.TrackOrdering}
+ */
+public class TrackOrdering {
+
+    private final int[] bucketStart;
+    private Request[] sorted;
+
+    public TrackOrdering() {
+        this.bucketStart = new int[NUMBER_OF_TRACKS + 2];
+        this.sorted = new Request[0];
+    }
+
+    /**
+     * Splits the requests around the head position and orders both parts for a LOOK sweep.
+     * <p>
+     * Requests with tracks greater than or equal to the head are written to {@code ascending}
+     * in increasing track order, the rest are written to {@code descending} in decreasing
+     * track order. Requests on the same track keep their arrival order. Both output lists
+     * are cleared first.
+     *
+     * @param requests   the requests to order.
+     * @param head       the current disk head position.
+     * @param ascending  the list receiving requests at or above the head.
+     * @param descending the list receiving requests below the head.
+     */
+    public void split(List<Request> requests, int head, List<Request> ascending, List<Request> descending) {
+        ascending.clear();
+        descending.clear();
+
+        int size = requests.size();
+        if (sorted.length < size) {
+            sorted = new Request[Math.max(size, sorted.length * 2)];
+        }
+
+        // Count requests per track, then turn the counts into bucket start offsets
+        Arrays.fill(bucketStart, 0);
+        for (int i = 0; i < size; i++) {
+            bucketStart[requests.get(i).getTrackNumber() + 1]++;
+        }
+        for (int track = 1; track < bucketStart.length; track++) {
+            bucketStart[track] += bucketStart[track - 1];
+        }
+
+        for (int i = 0; i < size; i++) {
+            Request request = requests.get(i);
+            sorted[bucketStart[request.getTrackNumber()]++] = request;
+        }
+        // Each start offset was advanced to the end of its bucket, shift them back
+        for (int track = bucketStart.length - 1; track > 0; track--) {
+            bucketStart[track] = bucketStart[track - 1];
+        }
+        bucketStart[0] = 0;
+
+        int pivot = Math.max(0, Math.min(head, NUMBER_OF_TRACKS + 1));
+        for (int i = bucketStart[pivot]; i < size; i++) {
+            ascending.add(sorted[i]);
+        }
+        for (int track = pivot - 1; track >= 0; track--) {
+            for (int i = bucketStart[track]; i < bucketStart[track + 1]; i++) {
+                descending.add(sorted[i]);
+            }
+        }
+
+        Arrays.fill(sorted, 0, size, null);
+    }
+
+    /**
+     * Benchmarks {@link #split} against sorting both halves with a comparator, as the sweeps
+     * were built before, on random sweeps of several sizes, ordering
+     * {@link SystemParams#TRACK_ORDERING_BENCHMARK_REQUESTS} requests per size.
+     */
+    public static void main(String[] args) {
+        TrackOrdering trackOrdering = new TrackOrdering();
+        Random random = new Random(WORKLOAD_SEED);
+        for (int size : new int[]{16, 256, 4096, 65536}) {
+            List<Request> requests = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                requests.add(new Request(random.nextInt(NUMBER_OF_TRACKS + 1), Request.RequestType.READ));
+            }
+            int head = random.nextInt(NUMBER_OF_TRACKS + 1);
+            int iterations = Math.max(1, TRACK_ORDERING_BENCHMARK_REQUESTS / size);
+            List<Request> ascending = new ArrayList<>(size);
+            List<Request> descending = new ArrayList<>(size);
+            List<Request> comparatorAscending = null;
+            List<Request> comparatorDescending = null;
+
+            // Warm up both paths before measuring
+            for (int i = 0; i < iterations; i++) {
+                sortAscending(requests, head);
+                sortDescending(requests, head);
+                trackOrdering.split(requests, head, ascending, descending);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                comparatorAscending = sortAscending(requests, head);
+                comparatorDescending = sortDescending(requests, head);
+            }
+            double comparatorNanos = (double) (System.nanoTime() - start) / iterations / size;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                trackOrdering.split(requests, head, ascending, descending);
+            }
+            double countingNanos = (double) (System.nanoTime() - start) / iterations / size;
+
+            Logger.log(TRACK_ORDERING_BENCHMARK_RESULT, size, comparatorNanos, countingNanos,
+                    comparatorNanos / countingNanos,
+                    ascending.equals(comparatorAscending) && descending.equals(comparatorDescending));
+        }
+    }
+
+    private static List<Request> sortAscending(List<Request> requests, int head) {
+        return requests.stream()
+                .filter(request -> request.getTrackNumber() >= head)
+                .sorted(Comparator.comparing(Request::getTrackNumber))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Request> sortDescending(List<Request> requests, int head) {
+        return requests.stream()
+                .filter(request -> request.getTrackNumber() < head)
+                .sorted(Comparator.comparing(Request::getTrackNumber).reversed())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+package denkoch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Track-indexed queue of pending disk requests.
+ * <p>
+ * Every track owns a FIFO bucket, and a bitmap marks the tracks with pending requests.
+ * Inserting a request is O(1), and finding the nearest pending track in either direction
+ * is a single next/previous-set-bit scan of the bitmap.
+ */
+public class TrackQueue {
+
+    private final ArrayDeque<Request>[] buckets;
+    private final BitSet pendingTracks;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TrackQueue() {
+        this.buckets = new ArrayDeque[NUMBER_OF_TRACKS + 1];
+        this.pendingTracks = new BitSet(NUMBER_OF_TRACKS + 1);
+    }
+
+    /**
+     * Adds a request to the bucket of its track.
+     *
+     * @param request the {@link Request} to add.
+     */
+    public void add(Request request) {
+        int track = request.getTrackNumber();
+        ArrayDeque<Request> bucket = buckets[track];
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets[track] = bucket;
+        }
+        bucket.addLast(request);
+        pendingTracks.set(track);
+        size++;
+    }
+
+    /**
+     * Finds the nearest pending track at or above the specified track.
+     *
+     * @param track the track to start searching from.
+     * @return the pending track, or {@code -1} if there is none.
+     */
+    public int ceilingTrack(int track) {
+        return pendingTracks.nextSetBit(Math.max(track, 0));
+    }
+
+    /**
+     * Finds the nearest pending track at or below the specified track.
+     *
+     * @param track the track to start searching from.
+     * @return the pending track, or {@code -1} if there is none.
+     */
+    public int floorTrack(int track) {
+        return pendingTracks.previousSetBit(Math.min(track, NUMBER_OF_TRACKS));
+    }
+
+    /**
+     * Removes and returns the oldest request pending on the specified track.
+     *
+     * @param track the track to take the request from.
+     * @return the oldest {@link Request} on the track, or {@code null} if the track has none.
+     */
+    public Request poll(int track) {
+        ArrayDeque<Request> bucket = buckets[track];
+        if (bucket == null || bucket.isEmpty()) {
+            return null;
+        }
+        Request request = bucket.pollFirst();
+        if (bucket.isEmpty()) {
+            pendingTracks.clear(track);
+        }
+        size--;
+        return request;
+    }
+
+    /**
+     * Removes the specified request from the queue.
+     *
+     * @param request the {@link Request} to remove.
+     * @return {@code true} if the request was pending; {@code false} otherwise.
+     */
+    public boolean remove(Request request) {
+        int track = request.getTrackNumber();
+        ArrayDeque<Request> bucket = buckets[track];
+        if (bucket == null || !bucket.remove(request)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            pendingTracks.clear(track);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the pending requests in increasing track order.
+     *
+     * @return a new list with the pending requests.
+     */
+    public List<Request> toList() {
+        List<Request> requests = new ArrayList<>(size);
+        for (int track = pendingTracks.nextSetBit(0); track >= 0; track = pendingTracks.nextSetBit(track + 1)) {
+            requests.addAll(buckets[track]);
+        }
+        return requests;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,16 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Draws every track with the same probability.
+ */
+public class UniformTrackDistribution implements TrackDistribution {
+
+    @Override
+    public int nextTrack(SplittableRandom random) {
+        return random.nextInt(NUMBER_OF_TRACKS);
+    }
+}
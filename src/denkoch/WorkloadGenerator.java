@@ -0,0 +1,185 @@
+package denkoch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+import static denkoch.Logger.*;
+import static denkoch.SystemParams.*;
+
+/**
+ * Generates reproducible request workloads.
+ * <p>
+ * Every process draws from its own {@link SplittableRandom} stream split off a single
+ * seed in process order, so the same seed always produces the same requests regardless
+ * of how the streams are interleaved. Each process has its own {@link ProcessWorkload}
+ * describing where its requests go, when they arrive and how many of them are writes.
+ * <p>
+ * Running the class on its own measures the generator throughput of every workload.
+ * Usage: {@code java denkoch.WorkloadGenerator}
+ */
+public class WorkloadGenerator {
+
+    /**
+     * Describes the requests issued by a single process.
+     */
+    public static class ProcessWorkload {
+        private final TrackDistribution tracks;
+        private final ArrivalProcess arrivals;
+        private final double writeRatio;
+
+        /**
+         * Constructs a new {@code ProcessWorkload}.
+         *
+         * @param tracks     the distribution of the request tracks.
+         * @param arrivals   the arrival process of the requests.
+         * @param writeRatio the probability that a request is a WRITE.
+         */
+        public ProcessWorkload(TrackDistribution tracks, ArrivalProcess arrivals, double writeRatio) {
+            this.tracks = tracks;
+            this.arrivals = arrivals;
+            this.writeRatio = writeRatio;
+        }
+    }
+
+    private final long seed;
+    private final IntFunction<ProcessWorkload> workloads;
+
+    /**
+     * Constructs a new {@code WorkloadGenerator}.
+     *
+     * @param seed      the seed all random streams are derived from.
+     * @param workloads creates the workload of the process with the given ID.
+     */
+    public WorkloadGenerator(long seed, IntFunction<ProcessWorkload> workloads) {
+        this.seed = seed;
+        this.workloads = workloads;
+    }
+
+    /**
+     * Generates requests and distributes them over the processes in round-robin order.
+     *
+     * @param processes        the processes that issue the requests.
+     * @param numberOfRequests the total number of requests to generate.
+     */
+    public void generate(List<Process> processes, int numberOfRequests) {
+        List<RequestStream> streams = createStreams(processes.stream().mapToInt(Process::getProcessId).toArray());
+        for (int i = 0; i < numberOfRequests; i++) {
+            int index = i % processes.size();
+            processes.get(index).addRequest(streams.get(index).next());
+        }
+    }
+
+    /**
+     * Generates requests straight into the input queue of a scheduler.
+     *
+     * @param diskScheduler     the {@link DiskScheduler} receiving the requests.
+     * @param numberOfProcesses the number of processes issuing requests, with IDs starting from 1.
+     * @param numberOfRequests  the total number of requests to generate.
+     */
+    public void generate(DiskScheduler diskScheduler, int numberOfProcesses, int numberOfRequests) {
+        Iterator<Request> requests = requests(numberOfProcesses, numberOfRequests);
+        while (requests.hasNext()) {
+            diskScheduler.addRequest(requests.next());
+        }
+    }
+
+    /**
+     * Generates requests lazily, taking turns between the processes in round-robin order.
+     * Every request carries the ID of the process that issued it.
+     *
+     * @param numberOfProcesses the number of processes issuing requests, with IDs starting from 1.
+     * @param numberOfRequests  the total number of requests to generate.
+     * @return an iterator over the generated requests.
+     */
+    public Iterator<Request> requests(int numberOfProcesses, int numberOfRequests) {
+        int[] processIds = new int[numberOfProcesses];
+        for (int i = 0; i < numberOfProcesses; i++) {
+            processIds[i] = i + 1;
+        }
+
+        List<RequestStream> streams = createStreams(processIds);
+        return new Iterator<>() {
+            private int generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < numberOfRequests;
+            }
+
+            @Override
+            public Request next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return streams.get(generated++ % numberOfProcesses).next();
+            }
+        };
+    }
+
+    private List<RequestStream> createStreams(int[] processIds) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RequestStream> streams = new ArrayList<>(processIds.length);
+        for (int processId : processIds) {
+            streams.add(new RequestStream(processId, random.split(), workloads.apply(processId)));
+        }
+        return streams;
+    }
+
+    private static class RequestStream {
+        private final int processId;
+        private final SplittableRandom random;
+        private final ProcessWorkload workload;
+        private double time;
+
+        RequestStream(int processId, SplittableRandom random, ProcessWorkload workload) {
+            this.processId = processId;
+            this.random = random;
+            this.workload = workload;
+        }
+
+        Request next() {
+            time += workload.arrivals.nextInterArrivalTime(random);
+            int track = workload.tracks.nextTrack(random);
+            int sector = random.nextInt(SECTORS_PER_TRACK);
+            Request.RequestType type = random.nextDouble() < workload.writeRatio
+                    ? Request.RequestType.WRITE
+                    : Request.RequestType.READ;
+            Request request = new Request(track, type, sector, time);
+            request.setProcessId(processId);
+            return request;
+        }
+    }
+
+    /**
+     * Measures how many requests per second the generator produces for every workload,
+     * generating {@link SystemParams#WORKLOAD_BENCHMARK_REQUESTS} requests per workload.
+     */
+    public static void main(String[] args) {
+        for (String workload : new String[]{"UNIFORM", "ZIPF", "HOTSPOT", "SEQUENTIAL", "MIXED"}) {
+            WorkloadGenerator generator = new WorkloadGenerator(WORKLOAD_SEED, Main.createWorkload(workload));
+
+            // Warm up before measuring
+            consume(generator.requests(NUMBER_OF_PROCESSES, WORKLOAD_BENCHMARK_REQUESTS));
+
+            long start = System.nanoTime();
+            long checksum = consume(generator.requests(NUMBER_OF_PROCESSES, WORKLOAD_BENCHMARK_REQUESTS));
+            double elapsed = (System.nanoTime() - start) / 1e6;
+
+            Logger.log(WORKLOAD_BENCHMARK_RESULT, workload, WORKLOAD_BENCHMARK_REQUESTS, elapsed,
+                    WORKLOAD_BENCHMARK_REQUESTS / elapsed / 1000, checksum);
+        }
+    }
+
+    private static long consume(Iterator<Request> requests) {
+        long checksum = 0;
+        while (requests.hasNext()) {
+            Request request = requests.next();
+            checksum += request.getTrackNumber() + request.getProcessId();
+        }
+        return checksum;
+    }
+}
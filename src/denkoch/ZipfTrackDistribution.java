@@ -0,0 +1,99 @@
+package denkoch;
+
+import java.util.SplittableRandom;
+
+import static denkoch.SystemParams.NUMBER_OF_TRACKS;
+
+/**
+ * Draws tracks from a Zipf distribution, so a few tracks receive most of the requests.
+ * <p>
+ * Ranks are sampled in O(1) expected time with the rejection-inversion method of
+ * Hormann and Derflinger, which needs no tables. The popularity ranks are scattered over
+ * the disk by a permutation fixed at construction time, so hot tracks are not all
+ * adjacent to each other.
+ */
+public class ZipfTrackDistribution implements TrackDistribution {
+
+    private final double exponent;
+    private final int[] tracksByRank;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    /**
+     * Constructs a new {@code ZipfTrackDistribution}.
+     *
+     * @param exponent the Zipf exponent; larger values concentrate requests on fewer tracks.
+     * @param seed     the seed of the permutation mapping popularity ranks to tracks.
+     */
+    public ZipfTrackDistribution(double exponent, long seed) {
+        this.exponent = exponent;
+        this.tracksByRank = new int[NUMBER_OF_TRACKS];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int track = 0; track < NUMBER_OF_TRACKS; track++) {
+            int other = random.nextInt(track + 1);
+            tracksByRank[track] = tracksByRank[other];
+            tracksByRank[other] = track;
+        }
+
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(NUMBER_OF_TRACKS + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    @Override
+    public int nextTrack(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int rank = (int) (x + 0.5);
+            if (rank < 1) {
+                rank = 1;
+            } else if (rank > NUMBER_OF_TRACKS) {
+                rank = NUMBER_OF_TRACKS;
+            }
+
+            if (rank - x <= s || u >= hIntegral(rank + 0.5) - h(rank)) {
+                return tracksByRank[rank - 1];
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * Calculates {@code log(1 + x) / x}, staying accurate for {@code x} close to zero.
+     */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * Calculates {@code (exp(x) - 1) / x}, staying accurate for {@code x} close to zero.
+     */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}